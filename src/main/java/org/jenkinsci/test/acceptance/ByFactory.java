@@ -39,7 +39,7 @@ public class ByFactory {
         } catch (XPathExpressionException ex) {
             throw new AssertionError("Invalid xpath syntax: " + xpath, ex);
         }
-        return By.xpath(xpath);
+        return new XPath(xpath);
     }
 
     /**
@@ -179,7 +179,7 @@ public class ByFactory {
     }
 
     public By css(String css, Object... args) {
-        return By.cssSelector(String.format(css, args));
+        return new Css(String.format(css, args));
     }
 
     public By tagName(String name) {
@@ -242,4 +242,35 @@ public class ByFactory {
         return By.partialLinkText(linkText);
     }
 
+    /**
+     * XPath selector that exposes its expression, so it can be evaluated by a script.
+     */
+    public static final class XPath extends By.ByXPath {
+        private final String expression;
+
+        public XPath(String expression) {
+            super(expression);
+            this.expression = expression;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+    }
+
+    /**
+     * CSS selector that exposes its expression, so it can be evaluated by a script.
+     */
+    public static final class Css extends By.ByCssSelector {
+        private final String expression;
+
+        public Css(String expression) {
+            super(expression);
+            this.expression = expression;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.jenkinsci.test.acceptance;
 
 import javax.annotation.CheckForNull;
 import javax.inject.Named;
+import javax.inject.Singleton;
 
 import java.io.File;
 import java.io.IOException;
@@ -10,33 +11,37 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 import org.apache.commons.lang.StringUtils;
-import org.eclipse.aether.RepositorySystem;
-import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.jenkinsci.test.acceptance.controller.JenkinsController;
 import org.jenkinsci.test.acceptance.controller.JenkinsControllerFactory;
+import org.jenkinsci.test.acceptance.controller.JenkinsControllerReuse;
 import org.jenkinsci.test.acceptance.guice.TestCleaner;
 import org.jenkinsci.test.acceptance.guice.TestName;
 import org.jenkinsci.test.acceptance.guice.TestScope;
+import org.jenkinsci.test.acceptance.guice.WorldCleaner;
 import org.jenkinsci.test.acceptance.po.Jenkins;
 import org.jenkinsci.test.acceptance.selenium.SanityChecker;
 import org.jenkinsci.test.acceptance.selenium.Scroller;
+import org.jenkinsci.test.acceptance.selenium.WebDriverPool;
 import org.jenkinsci.test.acceptance.server.JenkinsControllerPoolProcess;
 import org.jenkinsci.test.acceptance.server.PooledJenkinsController;
 import org.jenkinsci.test.acceptance.slave.LocalSlaveProvider;
 import org.jenkinsci.test.acceptance.slave.SlaveProvider;
 import org.jenkinsci.test.acceptance.utils.ElasticTime;
 import org.jenkinsci.test.acceptance.utils.IOUtil;
+import org.jenkinsci.test.acceptance.utils.JsonApiClient;
 import org.jenkinsci.test.acceptance.utils.SauceLabsConnection;
 import org.jenkinsci.test.acceptance.utils.aether.ArtifactResolverUtil;
 import org.jenkinsci.test.acceptance.utils.mail.MailService;
 import org.jenkinsci.test.acceptance.utils.mail.Mailtrap;
 import org.jenkinsci.test.acceptance.utils.pluginreporter.ExercisedPluginsReporter;
-import org.jenkinsci.test.acceptance.utils.pluginreporter.TextFileExercisedPluginReporter;
+import org.jenkinsci.test.acceptance.utils.pluginreporter.JournalExercisedPluginReporter;
 import org.jenkinsci.test.acceptance.utils.pluginreporter.ConsoleExercisedPluginReporter;
 import org.junit.runners.model.Statement;
 import org.openqa.selenium.Dimension;
@@ -60,6 +65,7 @@ import org.openqa.selenium.support.events.EventFiringWebDriver;
 import com.cloudbees.sdk.extensibility.ExtensionList;
 import com.google.inject.AbstractModule;
 import com.google.inject.Injector;
+import com.google.inject.Provider;
 import com.google.inject.Provides;
 
 /**
@@ -81,6 +87,8 @@ public class FallbackConfig extends AbstractModule {
     public static final String DOM_MAX_SCRIPT_RUN_TIME = "dom.max_script_run_time";
     public static final String DOM_MAX_CHROME_SCRIPT_RUN_TIME = "dom.max_chrome_script_run_time";
 
+    private static final Dimension MINIMAL_WINDOW_SIZE = new Dimension(1680, 1050);
+
     @Override
     protected void configure() {
         // default in case nothing is specified
@@ -176,25 +184,32 @@ public class FallbackConfig extends AbstractModule {
 
     /**
      * Creates a {@link WebDriver} for each test, then make sure to clean it up at the end.
+     *
+     * When <tt>BROWSER_POOL_SIZE</tt> is set, the browser is borrowed from {@link WebDriverPool} and returned
+     * there instead of being closed.
      */
     @Provides @TestScope
-    public WebDriver createWebDriver(TestCleaner cleaner, TestName testName, ElasticTime time) throws IOException {
-        WebDriver base = createWebDriver(testName);
-
-        // Make sue the window have minimal resolution set, even when out of the visible screen.
-        // Note - not maximizing here any more because that doesn't do anything.
-        Dimension oldSize = base.manage().window().getSize();
-        if (oldSize.height < 1050 || oldSize.width < 1680) {
-            base.manage().window().setSize(new Dimension(1680, 1050));
+    public WebDriver createWebDriver(TestCleaner cleaner, TestName testName, ElasticTime time, Provider<WebDriverPool> pool, JsonApiClient apiClient) throws Exception {
+        final WebDriver base;
+        final WebDriverPool p;
+        if (getBrowserPoolSize() > 0) {
+            p = pool.get();
+            base = p.acquire();
+        } else {
+            p = null;
+            base = createWebDriver(testName);
+            ensureMinimalWindowSize(base);
         }
 
         final EventFiringWebDriver d = new EventFiringWebDriver(base);
-        d.register(new SanityChecker());
+        final SanityChecker sanityChecker = new SanityChecker();
+        d.register(sanityChecker);
         d.register(new Scroller());
+        d.register(apiClient.getInvalidator());
 
         try {
-            d.manage().timeouts().pageLoadTimeout(time.seconds(30), TimeUnit.MILLISECONDS);
-            d.manage().timeouts().implicitlyWait(time.seconds(1), TimeUnit.MILLISECONDS);
+            d.manage().timeouts().pageLoadTimeout(time.seconds(30, ElasticTime.Category.PAGE), TimeUnit.MILLISECONDS);
+            d.manage().timeouts().implicitlyWait(time.seconds(1, ElasticTime.Category.PAGE), TimeUnit.MILLISECONDS);
         } catch (UnsupportedCommandException e) {
             // sauce labs RemoteWebDriver doesn't support this
             System.out.println(base + " doesn't support page load timeout");
@@ -202,6 +217,13 @@ public class FallbackConfig extends AbstractModule {
         cleaner.addTask(new Statement() {
             @Override
             public void evaluate() throws Throwable {
+                LOGGER.fine(String.format("Sanity checks: %d (%dms)", sanityChecker.getCheckCount(), sanityChecker.getTotalTime()));
+
+                if (p != null) {
+                    p.release(base);
+                    return;
+                }
+
                 try {
                     d.quit();
                 } catch (UnreachableBrowserException ex) {
@@ -211,12 +233,58 @@ public class FallbackConfig extends AbstractModule {
             }
 
             @Override public String toString() {
-                return "Close WebDriver after test";
+                return p == null ? "Close WebDriver after test" : "Return WebDriver to the pool after test";
             }
         });
         return d;
     }
 
+    /**
+     * Make sue the window have minimal resolution set, even when out of the visible screen.
+     * Note - not maximizing here any more because that doesn't do anything.
+     */
+    private static void ensureMinimalWindowSize(WebDriver driver) {
+        Dimension oldSize = driver.manage().window().getSize();
+        if (oldSize.height < MINIMAL_WINDOW_SIZE.height || oldSize.width < MINIMAL_WINDOW_SIZE.width) {
+            driver.manage().window().setSize(MINIMAL_WINDOW_SIZE);
+        }
+    }
+
+    /**
+     * Number of pre-launched browsers to keep, pooling is disabled by default.
+     */
+    private static int getBrowserPoolSize() {
+        String size = System.getenv("BROWSER_POOL_SIZE");
+        return StringUtils.isBlank(size) ? 0 : Integer.parseInt(size.trim());
+    }
+
+    /**
+     * Browsers kept warm across tests, see <tt>BROWSER_POOL_SIZE</tt>.
+     */
+    @Provides @Singleton
+    public WebDriverPool createWebDriverPool(WorldCleaner cleaner) {
+        final WebDriverPool pool = new WebDriverPool(getBrowserPoolSize(), MINIMAL_WINDOW_SIZE, new Callable<WebDriver>() {
+            @Override
+            public WebDriver call() throws Exception {
+                // Browser is not bound to any particular test
+                WebDriver driver = createWebDriver(new TestName("pooled-browser"));
+                ensureMinimalWindowSize(driver);
+                return driver;
+            }
+        });
+        cleaner.addTask(new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                pool.close();
+            }
+
+            @Override public String toString() {
+                return "Close pooled WebDrivers";
+            }
+        });
+        return pool;
+    }
+
     @Provides
     public ElasticTime getElasticTime() {
         return new ElasticTime();
@@ -224,6 +292,8 @@ public class FallbackConfig extends AbstractModule {
 
     /**
      * Instantiates a controller through the "TYPE" attribute and {@link JenkinsControllerFactory}.
+     *
+     * The controller is kept running across tests when <tt>JENKINS_REUSE</tt> is set, see {@link JenkinsControllerReuse}.
      */
     @Provides @TestScope
     public JenkinsController createController(Injector injector, ExtensionList<JenkinsControllerFactory> factories) throws IOException {
@@ -244,6 +314,11 @@ public class FallbackConfig extends AbstractModule {
 
         for (JenkinsControllerFactory f : factories) {
             if (f.getId().equalsIgnoreCase(type)) {
+                // Pool server hands out fresh instances on its own
+                if (JenkinsControllerReuse.isEnabled() && !JenkinsControllerPoolProcess.MAIN) {
+                    return injector.getInstance(JenkinsControllerReuse.class).get(f, injector, injector.getInstance(TestCleaner.class));
+                }
+
                 final JenkinsController c = f.create();
                 c.postConstruct(injector);
                 return c;
@@ -265,8 +340,7 @@ public class FallbackConfig extends AbstractModule {
      * @return the path to the form elements plug-in
      */
     @Named("form-element-path.hpi") @Provides
-    public File getFormElementsPathFile(RepositorySystem repositorySystem, RepositorySystemSession repositorySystemSession) {
-        ArtifactResolverUtil resolverUtil = new ArtifactResolverUtil(repositorySystem, repositorySystemSession);
+    public File getFormElementsPathFile(ArtifactResolverUtil resolverUtil) {
         String version = System.getenv("FORM_ELEMENT_PATH_VERSION");
         version = version == null ? "1.8" : version;
         ArtifactResult resolvedArtifact = resolverUtil.resolve(new DefaultArtifact("org.jenkins-ci.plugins", "form-element-path", "hpi", version));
@@ -316,7 +390,7 @@ public class FallbackConfig extends AbstractModule {
      * The file will exist on machine where tests run.
      */
     @Provides @Named("jenkins.war")
-    public File getJenkinsWar(RepositorySystem repositorySystem, RepositorySystemSession repositorySystemSession) {
+    public File getJenkinsWar(ArtifactResolverUtil resolverUtil) {
         try {
             return IOUtil.firstExisting(false, System.getenv("JENKINS_WAR"));
         } catch (IOException ex) {
@@ -324,7 +398,6 @@ public class FallbackConfig extends AbstractModule {
 
         String version = System.getenv("JENKINS_VERSION");
         if (version != null && !version.isEmpty()) {
-            ArtifactResolverUtil resolverUtil = new ArtifactResolverUtil(repositorySystem, repositorySystemSession);
             ArtifactResult resolvedArtifact = resolverUtil.resolve(new DefaultArtifact("org.jenkins-ci.main", "jenkins-war", "war", version));
             return resolvedArtifact.getArtifact().getFile();
         }
@@ -370,10 +443,15 @@ public class FallbackConfig extends AbstractModule {
          case "console":
              return new ConsoleExercisedPluginReporter();
          case "textfile":
-             return TextFileExercisedPluginReporter.getInstance();
+             return JournalExercisedPluginReporter.getInstance(JournalExercisedPluginReporter.Format.PROPERTIES);
+         case "json":
+             return JournalExercisedPluginReporter.getInstance(JournalExercisedPluginReporter.Format.JSON);
+         case "csv":
+             return JournalExercisedPluginReporter.getInstance(JournalExercisedPluginReporter.Format.CSV);
          default:
              throw new AssertionError("Unrecognized Exercised Plugin Report type: "+reporter);
          }
      }
-}
 
+    private static final Logger LOGGER = Logger.getLogger(FallbackConfig.class.getName());
+}
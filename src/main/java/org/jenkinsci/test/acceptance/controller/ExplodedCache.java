@@ -0,0 +1,185 @@
+package org.jenkinsci.test.acceptance.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.jenkinsci.test.acceptance.utils.SHA1Sum;
+import org.zeroturnaround.zip.ZipUtil;
+
+/**
+ * Content addressed cache of exploded <tt>jenkins.war</tt> and plugin archives.
+ *
+ * <p>
+ * Every archive is exploded once into a directory named after its SHA-1. Jenkins is then launched with
+ * <tt>--webroot</tt> pointing to the cached webapp and the plugin directories are recreated in JENKINS_HOME
+ * by hard-linking the cached files, so Jenkins finds the plugins already exploded. Linked files are made read-only
+ * as they share content with the cache.
+ *
+ * <p>
+ * The cache is shared by all JVMs using the same directory, entries are created under temporary name and
+ * atomically renamed once complete.
+ *
+ * @see <tt>docs/CONTROLLER.md</tt>
+ */
+public class ExplodedCache {
+    /**
+     * SHA-1 of files already computed in this JVM. Keyed by path, size and timestamp.
+     */
+    private static final Map<String, String> CHECKSUMS = new ConcurrentHashMap<>();
+
+    /**
+     * Plugin content that is copied rather than linked.
+     */
+    private static final String MUTABLE = "META-INF";
+
+    private final File root;
+
+    public ExplodedCache(@Nonnull File root) {
+        this.root = root;
+    }
+
+    /**
+     * Get the cache configured by <tt>EXPLODED_CACHE</tt> environment variable, or null if not configured.
+     */
+    public static @CheckForNull ExplodedCache fromEnvironment() {
+        String dir = System.getenv("EXPLODED_CACHE");
+        if (dir == null || dir.isEmpty()) return null;
+        return new ExplodedCache(new File(dir));
+    }
+
+    /**
+     * Get the directory with the exploded war.
+     *
+     * <p>
+     * Winstone re-extracts the <tt>--webroot</tt> unless its <tt>.timestamp</tt> has the same timestamp as the war,
+     * deleting the content other JVMs might be running from. So the file is written before the directory is published
+     * and wars differing in timestamp only get their own entries.
+     */
+    public @Nonnull File getWebroot(@Nonnull File war) throws IOException {
+        return explode(war, new File(root, "war"), sha1(war) + '-' + war.lastModified(), ".timestamp");
+    }
+
+    /**
+     * Explode all plugin archives in the directory using cached content.
+     *
+     * <p>
+     * Jenkins skips exploding the plugin when <tt>.timestamp2</tt> in the plugin directory has the same timestamp
+     * as the archive. This file is created for every plugin instead of being linked so it is not shared between
+     * JENKINS_HOMEs. <tt>META-INF</tt> is copied too, the rest of the content is linked.
+     */
+    public void explodePlugins(@Nonnull File pluginDir) throws IOException {
+        File[] archives = pluginDir.listFiles();
+        if (archives == null) return;
+
+        for (File archive : archives) {
+            String ext = FilenameUtils.getExtension(archive.getName());
+            if (!archive.isFile() || !(ext.equals("hpi") || ext.equals("jpi"))) continue;
+
+            File exploded = explode(archive, new File(root, "plugins"), sha1(archive), null);
+            File dest = new File(pluginDir, FilenameUtils.getBaseName(archive.getName()));
+            if (dest.exists()) {
+                FileUtils.deleteDirectory(dest);
+            }
+            link(exploded.toPath(), dest.toPath());
+
+            File timestamp = new File(dest, ".timestamp2");
+            FileUtils.touch(timestamp);
+            if (!timestamp.setLastModified(archive.lastModified())) {
+                throw new IOException("Unable to set timestamp of " + timestamp);
+            }
+        }
+    }
+
+    /**
+     * Link or copy the file to the given location.
+     *
+     * Files are hard-linked when possible, copied otherwise (different file system, etc.). Linked files are made
+     * read-only so writing to them fails instead of corrupting the cache. <tt>META-INF</tt> is always copied.
+     */
+    private static void link(final Path from, final Path to) throws IOException {
+        Files.walkFileTree(from, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(to.resolve(from.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path relative = from.relativize(file);
+                Path target = to.resolve(relative);
+                if (relative.startsWith(MUTABLE)) {
+                    Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                    return FileVisitResult.CONTINUE;
+                }
+                try {
+                    file.toFile().setWritable(false, false);
+                    Files.createLink(target, file);
+                } catch (IOException | UnsupportedOperationException ex) {
+                    Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * @param timestamp Name of the file to carry the timestamp of the archive, null if none.
+     */
+    private File explode(File archive, File dir, String name, @CheckForNull String timestamp) throws IOException {
+        File exploded = new File(dir, name);
+        if (exploded.isDirectory()) return exploded;
+
+        LOGGER.info("Caching exploded " + archive + " in " + exploded);
+        Files.createDirectories(dir.toPath());
+        Path tmp = Files.createTempDirectory(dir.toPath(), exploded.getName() + ".tmp");
+        try {
+            ZipUtil.unpack(archive, tmp.toFile());
+            if (timestamp != null) {
+                File file = new File(tmp.toFile(), timestamp);
+                FileUtils.touch(file);
+                if (!file.setLastModified(archive.lastModified())) {
+                    throw new IOException("Unable to set timestamp of " + file);
+                }
+            }
+            // Make sure the content is never considered outdated compared to the archive
+            tmp.toFile().setLastModified(Math.max(System.currentTimeMillis(), archive.lastModified()));
+            Files.move(tmp, exploded.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException ex) {
+            // Created concurrently
+        } catch (IOException ex) {
+            if (!exploded.isDirectory()) throw ex;
+            // Created concurrently, some file systems fail with different exception
+        } finally {
+            FileUtils.deleteQuietly(tmp.toFile());
+        }
+        return exploded;
+    }
+
+    private static String sha1(File file) {
+        String key = file.getAbsolutePath() + ':' + file.length() + ':' + file.lastModified();
+        String sha1 = CHECKSUMS.get(key);
+        if (sha1 == null) {
+            sha1 = new SHA1Sum(file).getSha1String();
+            CHECKSUMS.put(key, sha1);
+        }
+        return sha1;
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(ExplodedCache.class.getName());
+}
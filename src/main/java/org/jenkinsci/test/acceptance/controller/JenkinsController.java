@@ -1,5 +1,6 @@
 package org.jenkinsci.test.acceptance.controller;
 
+import javax.annotation.CheckForNull;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.io.File;
@@ -14,6 +15,7 @@ import java.util.logging.Logger;
 import org.apache.commons.io.IOUtils;
 import org.codehaus.plexus.util.FileUtils;
 import org.jenkinsci.test.acceptance.guice.AutoCleaned;
+import org.jenkinsci.test.acceptance.log.LogIndex;
 import org.jenkinsci.test.acceptance.log.LogListener;
 import org.jenkinsci.test.acceptance.log.LogPrinter;
 import org.jenkinsci.test.acceptance.log.NullPrinter;
@@ -53,6 +55,8 @@ public abstract class JenkinsController implements IJenkinsController, AutoClean
 
     private boolean isRunning;
 
+    private boolean retained;
+
     protected JenkinsController(Injector i) {
         i.injectMembers(this);
 
@@ -110,6 +114,15 @@ public abstract class JenkinsController implements IJenkinsController, AutoClean
         }
     }
 
+    /**
+     * Copy of the Jenkins log kept by the harness.
+     *
+     * @return null if the log is not available to the harness.
+     */
+    public @CheckForNull LogIndex getLogIndex() {
+        return null;
+    }
+
     protected LogListener getLogPrinter() {
         if (isQuite) {
             return new NullPrinter();
@@ -130,9 +143,12 @@ public abstract class JenkinsController implements IJenkinsController, AutoClean
 
     /**
      * Alias for {@link #tearDown()}.
+     *
+     * Does nothing for {@linkplain #setRetained(boolean) retained} controllers.
      */
     @Override
     public final void close() throws IOException {
+        if (retained) return;
         stop();
         tearDown();
     }
@@ -158,6 +174,20 @@ public abstract class JenkinsController implements IJenkinsController, AutoClean
         return isRunning;
     }
 
+    /**
+     * Retained controller outlives the test it was created for so it is not {@linkplain #close() closed} at the end
+     * of the test. Whoever retains the controller is responsible for closing it.
+     *
+     * @see JenkinsControllerReuse
+     */
+    public void setRetained(boolean retained) {
+        this.retained = retained;
+    }
+
+    public boolean isRetained() {
+        return retained;
+    }
+
     /**
      * Gives URL where Jenkins is listening. Must end with "/"
      */
@@ -0,0 +1,145 @@
+package org.jenkinsci.test.acceptance.controller;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jenkinsci.test.acceptance.guice.TestCleaner;
+import org.jenkinsci.test.acceptance.guice.WorldCleaner;
+import org.jenkinsci.test.acceptance.junit.WithIsolatedJenkins;
+import org.jenkinsci.test.acceptance.junit.WithPlugins;
+import org.junit.runners.model.Statement;
+
+import com.google.inject.Injector;
+
+/**
+ * Keeps single {@link LocalController} running across tests.
+ *
+ * <p>
+ * JENKINS_HOME is {@linkplain LocalController#snapshotJenkinsHome() captured} right after the first boot and the
+ * running instance is brought back to that state at the end of every test. The snapshot is taken again once
+ * {@link WithPlugins} installs plugins so they are kept for the following tests. In case the test body changed the
+ * set of installed plugins, or Jenkins refuses to reload, it is restarted instead. Tests annotated with
+ * {@link WithIsolatedJenkins} always get a restarted instance.
+ *
+ * <p>
+ * Enabled by <tt>JENKINS_REUSE</tt> environment variable.
+ *
+ * @see <tt>docs/CONTROLLER.md</tt>
+ */
+@Singleton
+public class JenkinsControllerReuse {
+    private LocalController controller;
+
+    @Inject
+    private WorldCleaner worldCleaner;
+
+    public static boolean isEnabled() {
+        return System.getenv("JENKINS_REUSE") != null;
+    }
+
+    /**
+     * Get the controller for the current test, creating it if needed.
+     */
+    public synchronized JenkinsController get(JenkinsControllerFactory factory, Injector injector, TestCleaner cleaner) throws IOException {
+        if (controller == null) {
+            JenkinsController c = factory.create();
+            c.postConstruct(injector);
+            if (!(c instanceof LocalController)) {
+                LOGGER.warning("Reusing Jenkins is supported for local controllers only, not " + c.getClass());
+                return c;
+            }
+
+            controller = (LocalController) c;
+            controller.setRetained(true);
+            worldCleaner.addTask(new Statement() {
+                @Override
+                public void evaluate() throws Throwable {
+                    discard();
+                }
+
+                @Override public String toString() {
+                    return "Shut down reused Jenkins";
+                }
+            });
+        }
+
+        cleaner.addTask(new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                reset();
+            }
+
+            @Override public String toString() {
+                return "Reset reused Jenkins to snapshot";
+            }
+        });
+        return controller;
+    }
+
+    /**
+     * Make sure the test starts with freshly restarted instance.
+     */
+    public synchronized void isolate(JenkinsController c) throws IOException {
+        if (c != controller || !controller.isRunning()) return;
+
+        LOGGER.info("Restarting reused Jenkins for isolated test");
+        controller.stop();
+        controller.restoreJenkinsHome();
+        // Started as a part of the test
+    }
+
+    /**
+     * Include plugins installed for the test in the snapshot, before the test body runs.
+     */
+    public synchronized void pluginsInstalled(JenkinsController c) throws IOException {
+        if (c != controller || !controller.isRunning() || !controller.hasSnapshot()) return;
+
+        if (controller.isPluginSetModified()) {
+            controller.snapshotJenkinsHome();
+        }
+    }
+
+    private synchronized void reset() throws IOException {
+        if (controller == null) return;
+
+        if (!controller.hasSnapshot()) {
+            // Failed before snapshot was taken, start over next time
+            discard();
+            return;
+        }
+
+        if (!controller.isRunning() || controller.isPluginSetModified()) {
+            restart();
+            return;
+        }
+
+        try {
+            controller.restoreJenkinsHome();
+            controller.reload();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to reload reused Jenkins, restarting", ex);
+            restart();
+        }
+    }
+
+    private void restart() throws IOException {
+        controller.stop();
+        controller.restoreJenkinsHome();
+        controller.start();
+    }
+
+    private synchronized void discard() throws IOException {
+        if (controller == null) return;
+
+        LocalController c = controller;
+        controller = null;
+        c.setRetained(false);
+        c.close();
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(JenkinsControllerReuse.class.getName());
+}
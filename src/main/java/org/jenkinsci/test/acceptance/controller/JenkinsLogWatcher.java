@@ -3,7 +3,6 @@ package org.jenkinsci.test.acceptance.controller;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Date;
@@ -15,11 +14,13 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.input.TeeInputStream;
+import org.jenkinsci.test.acceptance.log.AsyncFileOutputStream;
 import org.jenkinsci.test.acceptance.log.LogListenable;
 import org.jenkinsci.test.acceptance.log.LogListener;
 import org.jenkinsci.test.acceptance.log.LogReader;
 import org.jenkinsci.test.acceptance.log.LogSplitter;
 import org.jenkinsci.test.acceptance.log.LogWatcher;
+import org.jenkinsci.test.acceptance.utils.ElasticTime;
 
 import static java.util.concurrent.TimeUnit.*;
 
@@ -43,6 +44,11 @@ public class JenkinsLogWatcher implements LogListenable, Closeable {
 
     private InputStream pipe;
 
+    /**
+     * Copy of the output written to {@link #logFile} in the background, not to hold up the reader.
+     */
+    private final AsyncFileOutputStream logOutput;
+
     /**
      * Thread that reads log output from Jenkins.
      */
@@ -55,6 +61,8 @@ public class JenkinsLogWatcher implements LogListenable, Closeable {
 
     private final LogWatcher watcher = new LogWatcher();
 
+    private long startedAt;
+
     /**
      * @param id
      *      Short ID that indicates the log that we are watching.
@@ -63,7 +71,8 @@ public class JenkinsLogWatcher implements LogListenable, Closeable {
      */
     public JenkinsLogWatcher(String id, InputStream pipe, File logFile, final LogListener printer) throws FileNotFoundException {
         this.logFile = logFile;
-        this.pipe = new TeeInputStream(pipe,new FileOutputStream(logFile));
+        this.logOutput = new AsyncFileOutputStream(logFile);
+        this.pipe = new TeeInputStream(pipe,logOutput);
 
         splitter.addLogListener(printer);
         splitter.addLogListener(watcher);
@@ -77,6 +86,7 @@ public class JenkinsLogWatcher implements LogListenable, Closeable {
      * Starts scanning logs.
      */
     public void start() {
+        startedAt = System.currentTimeMillis();
         reader.start();
     }
 
@@ -86,6 +96,14 @@ public class JenkinsLogWatcher implements LogListenable, Closeable {
             pipe.close();
             pipe = null;
         }
+        logOutput.close();
+    }
+
+    /**
+     * Write the output received so far to {@link #logFile}, so it can be read.
+     */
+    public void flush() throws IOException {
+        logOutput.flush();
     }
 
     /**
@@ -94,6 +112,7 @@ public class JenkinsLogWatcher implements LogListenable, Closeable {
     public void waitTillReady() {
         try {
             ready.get(JenkinsController.STARTUP_TIMEOUT, SECONDS);
+            ElasticTime.record(ElasticTime.Category.BOOT, System.currentTimeMillis() - startedAt);
         } catch (TimeoutException e) {
             if (portConflict.isDone())
                 throw new RuntimeException("Port conflict detected");
@@ -109,6 +128,7 @@ public class JenkinsLogWatcher implements LogListenable, Closeable {
         msg += "\nprocess is " + (reader.isAlive() ? "alive" : "dead");
         msg += "\nnow = " + new Date();
         try {
+            flush();
             msg += "\n" + FileUtils.readFileToString(logFile);
         } catch (IOException _) {
             // ignore
@@ -116,6 +136,15 @@ public class JenkinsLogWatcher implements LogListenable, Closeable {
         return msg;
     }
 
+    /**
+     * Starts watching an expression in the output.
+     *
+     * Returned future will signal when the expression is found.
+     */
+    public Future<Matcher> watch(Pattern regexp) {
+        return watcher.watch(regexp);
+    }
+
     @Override
     public void addLogListener(LogListener l) {
         splitter.addLogListener(l);
@@ -6,32 +6,48 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Field;
+import java.net.HttpURLConnection;
 import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.jar.JarFile;
 import java.util.logging.Logger;
 
 import org.apache.commons.io.FileUtils;
 import org.codehaus.plexus.util.Expand;
 import org.codehaus.plexus.util.StringUtils;
 import org.jenkinsci.test.acceptance.junit.FailureDiagnostics;
+import org.jenkinsci.test.acceptance.log.LogIndex;
 import org.jenkinsci.test.acceptance.log.LogListenable;
 import org.jenkinsci.test.acceptance.log.LogListener;
+import org.jenkinsci.test.acceptance.utils.ElasticTime;
+import org.jenkinsci.test.acceptance.utils.IOUtil;
 import org.jenkinsci.utils.process.CommandBuilder;
 import org.jenkinsci.utils.process.ProcessInputStream;
 import org.junit.runners.model.MultipleFailureException;
 import org.openqa.selenium.TimeoutException;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.olivergondza.dumpling.factory.PidRuntimeFactory;
 import com.github.olivergondza.dumpling.model.ModelObject;
 import com.github.olivergondza.dumpling.model.dump.ThreadDumpRuntime;
 import com.google.inject.Injector;
+import hudson.util.VersionNumber;
 
 import static java.lang.System.*;
 
@@ -57,6 +73,11 @@ public abstract class LocalController extends JenkinsController implements LogLi
 
     protected JenkinsLogWatcher logWatcher;
 
+    /**
+     * Log of the Jenkins runs, kept across restarts for as long as some test needs it.
+     */
+    private final LogIndex logIndex = new LogIndex();
+
     private final Thread shutdownHook = new Thread() {
         @Override
         public void run() {
@@ -72,6 +93,14 @@ public abstract class LocalController extends JenkinsController implements LogLi
     @Inject
     private Injector injector;
 
+    @Inject
+    private ElasticTime time;
+
+    /**
+     * Cache of exploded war and plugins, null if not used.
+     */
+    protected final ExplodedCache explodedCache = ExplodedCache.fromEnvironment();
+
     /**
      * Flag to indicate if the install wizard should be run
      */
@@ -135,6 +164,21 @@ public abstract class LocalController extends JenkinsController implements LogLi
             throw new RuntimeException(String.format("Failed to copy form path element file %s to plugin dir %s.",
                     formElementPathPlugin, pluginDir),e);
         }
+
+        try {
+            preparePlugins();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to populate exploded plugins in " + pluginDir, e);
+        }
+    }
+
+    /**
+     * Prepare plugin archives placed in <tt>JENKINS_HOME/plugins</tt> to be loaded. Call before Jenkins is started.
+     */
+    public void preparePlugins() throws IOException {
+        if (explodedCache != null) {
+            explodedCache.explodePlugins(new File(jenkinsHome, "plugins"));
+        }
     }
 
     @Override
@@ -147,6 +191,11 @@ public abstract class LocalController extends JenkinsController implements LogLi
         logWatcher.removeLogListener(l);
     }
 
+    @Override
+    public LogIndex getLogIndex() {
+        return logIndex;
+    }
+
     /**
      * @deprecated Will not work correctly in Jenkins 2.33 and later. Apparently unused anyway.
      */
@@ -160,6 +209,17 @@ public abstract class LocalController extends JenkinsController implements LogLi
         return jenkinsHome;
     }
 
+    /**
+     * Version of Jenkins as declared by the war, available before Jenkins is started.
+     */
+    public VersionNumber getWarVersion() throws IOException {
+        try (JarFile jar = new JarFile(war)) {
+            String version = jar.getManifest().getMainAttributes().getValue("Jenkins-Version");
+            if (version == null) throw new IOException("No Jenkins-Version in manifest of " + war);
+            return new VersionNumber(version);
+        }
+    }
+
     @Override
     public void populateJenkinsHome(byte[] _template, boolean clean) throws IOException {
         try {
@@ -213,6 +273,7 @@ public abstract class LocalController extends JenkinsController implements LogLi
         Runtime.getRuntime().addShutdownHook(shutdownHook);
 
         logWatcher = new JenkinsLogWatcher(getLogId(),process,logFile, getLogPrinter());
+        logWatcher.addLogListener(logIndex);
         logWatcher.start();
         try {
             LOGGER.info("Waiting for Jenkins to become running in "+ this);
@@ -221,6 +282,10 @@ public abstract class LocalController extends JenkinsController implements LogLi
         } catch (Exception e) {
             diagnoseFailedLoad(e);
         }
+
+        if (isRetained() && !hasSnapshot()) {
+            snapshotJenkinsHome();
+        }
     }
 
     @Override
@@ -271,8 +336,180 @@ public abstract class LocalController extends JenkinsController implements LogLi
 
     }
 
+    /**
+     * Directory holding the copy of JENKINS_HOME taken by {@link #snapshotJenkinsHome()}.
+     */
+    private File getSnapshotDir() {
+        return new File(jenkinsHome.getParentFile(), jenkinsHome.getName() + ".snapshot");
+    }
+
+    public boolean hasSnapshot() {
+        return getSnapshotDir().isDirectory();
+    }
+
+    /**
+     * Record the current content of JENKINS_HOME so it can be {@linkplain #restoreJenkinsHome() restored} later.
+     *
+     * The exploded webapp is excluded as Jenkins maintains it on its own.
+     */
+    public void snapshotJenkinsHome() throws IOException {
+        File snapshot = getSnapshotDir();
+        if (snapshot.exists()) {
+            FileUtils.forceDelete(snapshot);
+        }
+        FileUtils.copyDirectory(jenkinsHome, snapshot, new FileFilter() {
+            @Override
+            public boolean accept(File f) {
+                return !isExcludedFromSnapshot(f.toPath());
+            }
+        }, true);
+        LOGGER.info("JENKINS_HOME snapshot taken in " + snapshot);
+    }
+
+    /**
+     * Bring JENKINS_HOME back to the state captured by {@link #snapshotJenkinsHome()}.
+     *
+     * Files not present in the snapshot are deleted and files that differ in size or timestamp are copied over.
+     * Jenkins needs to be restarted or {@linkplain #reload() reloaded} to pick up the changes.
+     */
+    public void restoreJenkinsHome() throws IOException {
+        final Path snapshot = getSnapshotDir().toPath();
+        final Path home = jenkinsHome.toPath();
+        if (!Files.isDirectory(snapshot)) throw new IllegalStateException("No snapshot of " + home);
+
+        // Remove what was added
+        Files.walkFileTree(home, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (isExcludedFromSnapshot(dir)) return FileVisitResult.SKIP_SUBTREE;
+                if (!Files.exists(snapshot.resolve(home.relativize(dir)))) {
+                    FileUtils.deleteDirectory(dir.toFile());
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!Files.exists(snapshot.resolve(home.relativize(file)))) {
+                    Files.delete(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        // Bring back what was modified or removed
+        Files.walkFileTree(snapshot, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(home.resolve(snapshot.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path target = home.resolve(snapshot.relativize(file));
+                if (!Files.exists(target) || Files.size(target) != attrs.size()
+                        || !Files.getLastModifiedTime(target).equals(attrs.lastModifiedTime())) {
+                    Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Determine whether the plugin archives differ from the snapshot so the running instance can not be
+     * brought back to the snapshot without restart.
+     */
+    public boolean isPluginSetModified() {
+        return !pluginArchives(new File(jenkinsHome, "plugins")).equals(pluginArchives(new File(getSnapshotDir(), "plugins")));
+    }
+
+    private static Map<String, Long> pluginArchives(File dir) {
+        Map<String, Long> archives = new HashMap<>();
+        File[] files = dir.listFiles();
+        if (files == null) return archives;
+        for (File f : files) {
+            if (f.isFile()) {
+                archives.put(f.getName(), f.length() ^ f.lastModified());
+            }
+        }
+        return archives;
+    }
+
+    private boolean isExcludedFromSnapshot(Path path) {
+        return path.equals(new File(jenkinsHome, "war").toPath())
+                || path.equals(new File(getSnapshotDir(), "war").toPath());
+    }
+
+    /**
+     * Ask running Jenkins to reload its configuration from disk and wait until it is done.
+     *
+     * @throws IOException In case Jenkins refused to reload.
+     */
+    public void reload() throws IOException {
+        // Crumb is bound to the session, so the cookies are sent along with it
+        String[] crumb = null;
+        StringBuilder cookies = new StringBuilder();
+        HttpURLConnection crumbCon = IOUtil.openConnection(new URL(getUrl(), "crumbIssuer/api/json"));
+        if (crumbCon.getResponseCode() == HttpURLConnection.HTTP_OK) {
+            JsonNode json;
+            try (InputStream in = crumbCon.getInputStream()) {
+                json = new ObjectMapper().readTree(in);
+            }
+            crumb = new String[] { json.get("crumbRequestField").asText(), json.get("crumb").asText() };
+
+            List<String> setCookies = crumbCon.getHeaderFields().get("Set-Cookie");
+            if (setCookies != null) {
+                for (String setCookie : setCookies) {
+                    if (cookies.length() > 0) cookies.append("; ");
+                    cookies.append(setCookie.split(";", 2)[0]);
+                }
+            }
+        }
+
+        HttpURLConnection con = IOUtil.openConnection(new URL(getUrl(), "reload"));
+        con.setRequestMethod("POST");
+        con.setInstanceFollowRedirects(false);
+        if (crumb != null) {
+            con.setRequestProperty(crumb[0], crumb[1]);
+        }
+        if (cookies.length() > 0) {
+            con.setRequestProperty("Cookie", cookies.toString());
+        }
+
+        int code = con.getResponseCode();
+        if (code == HttpURLConnection.HTTP_FORBIDDEN && crumb != null) {
+            throw new IOException("Unable to reload " + getUrl() + ": crumb rejected (HTTP 403)");
+        }
+        if (code >= 400) throw new IOException("Unable to reload " + getUrl() + ": HTTP " + code);
+
+        long timeout = System.currentTimeMillis() + time.seconds(STARTUP_TIMEOUT);
+        while (true) {
+            try {
+                HttpURLConnection api = IOUtil.openConnection(new URL(getUrl(), "api/json?tree=nodeName"));
+                if (api.getResponseCode() == HttpURLConnection.HTTP_OK) return;
+            } catch (IOException ex) {
+                // Retry
+            }
+
+            if (System.currentTimeMillis() > timeout) throw new IOException("Jenkins have not reloaded in time: " + getUrl());
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
     @Override
     public void tearDown(){
+        File snapshot = getSnapshotDir();
+        if (snapshot.exists()) {
+            FileUtils.deleteQuietly(snapshot);
+        }
+
         try {
             FileUtils.forceDelete(jenkinsHome);
         } catch (IOException e) {
@@ -341,6 +578,7 @@ public abstract class LocalController extends JenkinsController implements LogLi
         // Copy log to diagnostics
         FailureDiagnostics diagnostics = injector.getInstance(FailureDiagnostics.class);
         File log = diagnostics.touch("jenkins.log");
+        logWatcher.flush();
         Files.copy(logFile.toPath(), log.toPath(), StandardCopyOption.REPLACE_EXISTING);
 
         throw (cause instanceof IOException)
@@ -8,6 +8,7 @@ import java.net.URL;
 
 import org.codehaus.plexus.util.FileUtils;
 import org.jenkinsci.test.acceptance.Ssh;
+import org.jenkinsci.test.acceptance.log.LogIndex;
 import org.jenkinsci.test.acceptance.machine.Machine;
 import org.jenkinsci.test.acceptance.utils.GNUCLibrary;
 import org.jenkinsci.utils.process.CommandBuilder;
@@ -46,6 +47,7 @@ public class RemoteJenkinsController extends JenkinsController {
     private final int httpPort;
     private final int controlPort;
     private JenkinsLogWatcher logWatcher;
+    private final LogIndex logIndex = new LogIndex();
     private final String jenkinsWarLocation;
     protected ProcessInputStream process;
     private final File logFile;
@@ -79,6 +81,7 @@ public class RemoteJenkinsController extends JenkinsController {
         System.out.println(String.format("[[ATTACHMENT|%s]]", logFile.getAbsolutePath()));
 
         logWatcher = new JenkinsLogWatcher(getLogId(), process, logFile, getLogPrinter());
+        logWatcher.addLogListener(logIndex);
         logWatcher.start();
         try {
             this.logWatcher.waitTillReady();
@@ -87,6 +90,11 @@ public class RemoteJenkinsController extends JenkinsController {
         }
     }
 
+    @Override
+    public LogIndex getLogIndex() {
+        return logIndex;
+    }
+
     @Override
     public void stopNow() throws IOException {
         Process p = process.getProcess();
@@ -148,6 +156,9 @@ public class RemoteJenkinsController extends JenkinsController {
         cause.printStackTrace();
         out.println("It looks like there was an error, here's the console from Jenkins:");
         out.println("--------------------------------------------------------------------------");
+        if (logWatcher != null) {
+            logWatcher.flush();
+        }
         out.println(FileUtils.fileRead(logFile));
     }
 
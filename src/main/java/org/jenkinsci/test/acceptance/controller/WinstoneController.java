@@ -61,6 +61,9 @@ public class WinstoneController extends LocalController {
                 "-jar", war,
                 "--ajp13Port=-1",
                 "--httpPort=" + httpPort);
+        if (explodedCache != null) {
+            cb.add("--webroot=" + explodedCache.getWebroot(war).getAbsolutePath());
+        }
         cb.env.putAll(commonLaunchEnv());
         LOGGER.info("Starting Jenkins: " + cb.toString());
         return cb.popen();
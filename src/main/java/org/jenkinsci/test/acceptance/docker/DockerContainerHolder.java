@@ -11,11 +11,15 @@ import javax.inject.Named;
 import javax.inject.Provider;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.Callable;
 import org.jenkinsci.test.acceptance.docker.DockerImage.Starter;
 
 /**
  * Inject this object to automate the cleanup of a running container at the end of the test case.
  *
+ * Containers of fixtures marked with {@link SharedDockerContainer} are returned to {@link SharedDockerContainers}
+ * for the next test instead.
+ *
  * @author Kohsuke Kawaguchi
  */
 @TestScope
@@ -39,15 +43,33 @@ public class DockerContainerHolder<T extends DockerContainer> implements Provide
     @Named("dockerPortOffset")
     private Integer portOffset;
 
+    @Inject
+    private SharedDockerContainers shared;
+
+    private boolean isShared;
+
     /**
      * Lazily starts a container and returns the instance.
+     *
+     * Containers of fixtures marked with {@link SharedDockerContainer} are reused from previous tests if possible.
      */
     @Override
     public synchronized T get() {
         if (container==null) {
+            @SuppressWarnings("unchecked")
+            Class<T> fixture = (Class<T>) type.getRawType();
             try {
-                container = starter().start();
-            } catch (InterruptedException | IOException e) {
+                if (portOffset == null && fixture.isAnnotationPresent(SharedDockerContainer.class)) {
+                    container = shared.acquire(fixture, new Callable<T>() {
+                        @Override public T call() throws Exception {
+                            return starter().start();
+                        }
+                    });
+                    isShared = true;
+                } else {
+                    container = starter().start();
+                }
+            } catch (Exception e) {
                 throw new Error("Failed to start container - " + type, e);
             }
         }
@@ -75,7 +97,11 @@ public class DockerContainerHolder<T extends DockerContainer> implements Provide
     @Override
     public void close() throws IOException {
         if (container != null) {
-            container.close();
+            if (isShared) {
+                shared.release(container);
+            } else {
+                container.close();
+            }
             container = null;
         }
     }
@@ -0,0 +1,37 @@
+package org.jenkinsci.test.acceptance.docker;
+
+import java.io.IOException;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link DockerFixture} whose container can be reused by subsequent tests instead of being started for every
+ * test that injects {@link DockerContainerHolder}.
+ *
+ * <p>
+ * Annotate only fixtures whose state tests do not change, or implement {@link Resettable} to bring the container
+ * back to its initial state before it is handed to the next test. The containers are stopped once all tests are done.
+ *
+ * @see SharedDockerContainers
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SharedDockerContainer {
+
+    /**
+     * Shared container that needs to be cleaned up between tests.
+     */
+    interface Resettable {
+        /**
+         * Bring the container to the state it had when started.
+         *
+         * Called before the container is reused by another test. The container is discarded and a new one is started
+         * when the reset fails.
+         */
+        void reset() throws IOException, InterruptedException;
+    }
+}
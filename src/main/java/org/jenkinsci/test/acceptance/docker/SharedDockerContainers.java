@@ -0,0 +1,156 @@
+package org.jenkinsci.test.acceptance.docker;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jenkinsci.test.acceptance.guice.WorldCleaner;
+import org.junit.runners.model.Statement;
+
+/**
+ * Containers of {@link SharedDockerContainer} fixtures kept running across tests.
+ *
+ * <p>
+ * Every container is leased to one test at a time. Tests running concurrently get containers of their own, all of
+ * them are kept for reuse. Before the container is leased again, it is verified to be still running and
+ * {@linkplain SharedDockerContainer.Resettable#reset() reset}.
+ */
+@Singleton
+public class SharedDockerContainers {
+    /**
+     * Containers not leased at the moment, per fixture type.
+     */
+    private final Map<Class<?>, List<DockerContainer>> idle = new HashMap<>();
+
+    /**
+     * All containers running, leased or idle.
+     */
+    private final Set<DockerContainer> running = Collections.newSetFromMap(new IdentityHashMap<DockerContainer, Boolean>());
+
+    @Inject
+    private WorldCleaner worldCleaner;
+
+    private boolean cleanupScheduled;
+
+    /**
+     * Lease the container of given type, starting new one if none is available.
+     */
+    public <T extends DockerContainer> T acquire(Class<T> fixture, Callable<T> starter) throws Exception {
+        while (true) {
+            T container = takeIdle(fixture);
+            if (container == null) break;
+
+            if (isHealthy(container)) {
+                return container;
+            }
+            discard(container);
+        }
+
+        T container = starter.call();
+        synchronized (this) {
+            running.add(container);
+            if (!cleanupScheduled) {
+                cleanupScheduled = true;
+                worldCleaner.addTask(new Statement() {
+                    @Override
+                    public void evaluate() throws Throwable {
+                        close();
+                    }
+
+                    @Override public String toString() {
+                        return "Stop shared docker containers";
+                    }
+                });
+            }
+        }
+        return container;
+    }
+
+    /**
+     * Return the container leased before.
+     */
+    public synchronized void release(DockerContainer container) {
+        if (!running.contains(container)) return; // Discarded in the meantime
+
+        List<DockerContainer> containers = idle.get(container.getClass());
+        if (containers == null) {
+            containers = new ArrayList<>();
+            idle.put(container.getClass(), containers);
+        }
+        if (!containers.contains(container)) { // Released already
+            containers.add(container);
+        }
+    }
+
+    private synchronized <T extends DockerContainer> T takeIdle(Class<T> fixture) {
+        List<DockerContainer> containers = idle.get(fixture);
+        if (containers == null || containers.isEmpty()) return null;
+
+        return fixture.cast(containers.remove(containers.size() - 1));
+    }
+
+    /**
+     * Verify the container is running and reset it.
+     */
+    private boolean isHealthy(DockerContainer container) {
+        try {
+            String running = Docker.cmd("inspect", "-f", "{{.State.Running}}", container.getCid())
+                    .popen()
+                    .verifyOrDieWith("Unable to inspect container " + container.getCid())
+            ;
+            if (!"true".equals(running.trim())) {
+                LOGGER.warning("Shared container " + container.getCid() + " is not running");
+                return false;
+            }
+
+            if (container instanceof SharedDockerContainer.Resettable) {
+                ((SharedDockerContainer.Resettable) container).reset();
+            }
+            return true;
+        } catch (IOException | InterruptedException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Unable to reuse shared container " + container.getCid(), ex);
+            return false;
+        }
+    }
+
+    private void discard(DockerContainer container) {
+        synchronized (this) {
+            running.remove(container);
+        }
+        stop(container);
+    }
+
+    private void close() {
+        List<DockerContainer> containers;
+        synchronized (this) {
+            containers = new ArrayList<>(running);
+            running.clear();
+            idle.clear();
+        }
+
+        for (DockerContainer container : containers) {
+            stop(container);
+        }
+    }
+
+    private static void stop(DockerContainer container) {
+        try {
+            container.close();
+        } catch (Exception ex) {
+            LOGGER.log(Level.WARNING, "Unable to stop shared container " + container.getCid(), ex);
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(SharedDockerContainers.class.getName());
+}
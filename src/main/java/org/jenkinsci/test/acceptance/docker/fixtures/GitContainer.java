@@ -6,12 +6,14 @@ import java.net.URL;
 import org.jenkinsci.test.acceptance.docker.Docker;
 import org.jenkinsci.test.acceptance.docker.DockerContainer;
 import org.jenkinsci.test.acceptance.docker.DockerFixture;
+import org.jenkinsci.test.acceptance.docker.SharedDockerContainer;
 
 /**
  * Runs gitserver container.
  */
+@SharedDockerContainer
 @DockerFixture(id = "git", ports = 22)
-public class GitContainer extends DockerContainer {
+public class GitContainer extends DockerContainer implements SharedDockerContainer.Resettable {
     protected static final String REPO_DIR = "/home/git/gitRepo";
     public static final String REPO_NAME = "gitRepo";
 
@@ -55,4 +57,14 @@ public class GitContainer extends DockerContainer {
                 .verifyOrDieWith("Unable to add SSH public key to authorized keys");
     }
 
+    /**
+     * Remove repositories and keys added by previous test.
+     */
+    @Override
+    public void reset() throws IOException, InterruptedException {
+        Docker.cmd("exec", getCid()).add("/bin/bash", "-c",
+                "rm -rf " + REPO_DIR + " /home/git/git*zip && cp /home/git/unsafe.pub /home/git/.ssh/authorized_keys"
+        ).popen().verifyOrDieWith("Unable to reset git container");
+    }
+
 }
@@ -2,14 +2,17 @@ package org.jenkinsci.test.acceptance.docker.fixtures;
 
 import org.jenkinsci.test.acceptance.docker.DockerContainer;
 import org.jenkinsci.test.acceptance.docker.DockerFixture;
+import org.jenkinsci.test.acceptance.docker.SharedDockerContainer;
 
 /**
  * openLDAP (slapd) Container with a small user directory.
  * The configuration of this ldap is located next to its Dockerfile.
  * To edit/add users or groups just add them to config/base.ldif and rebuild the image.
+ * Tests only read the directory so the container is shared.
  *
  * @author Michael Prankl
  */
+@SharedDockerContainer
 @DockerFixture(id = "ldap", ports = {389, 636})
 public class LdapContainer extends DockerContainer {
 
@@ -5,7 +5,9 @@ import com.google.inject.Injector;
 
 import org.jenkinsci.test.acceptance.controller.JenkinsController;
 import org.jenkinsci.test.acceptance.guice.World;
+import org.jenkinsci.test.acceptance.log.TestLog;
 import org.jenkinsci.test.acceptance.po.CapybaraPortingLayerImpl;
+import org.jenkinsci.test.acceptance.utils.ElasticTime;
 import org.junit.internal.AssumptionViolatedException;
 import org.junit.rules.MethodRule;
 import org.junit.rules.TestRule;
@@ -46,6 +48,8 @@ public class JenkinsAcceptanceTestRule implements MethodRule { // TODO should us
             @Inject Injector injector;
             @Inject FailureDiagnostics diagnostics;
             @Inject WebDriver driver;
+            @Inject TestLog log; // Created eagerly to cover the whole test
+            @Inject ElasticTime time;
 
             @Override
             public void evaluate() throws Throwable {
@@ -55,6 +59,9 @@ public class JenkinsAcceptanceTestRule implements MethodRule { // TODO should us
                 world.startTestScope(description.getDisplayName());
 
                 injector.injectMembers(this);
+                if (ElasticTime.isAdaptive()) {
+                    System.out.println(time);
+                }
 
                 try {
                     decorateWithRules(base).evaluate();
@@ -69,6 +76,9 @@ public class JenkinsAcceptanceTestRule implements MethodRule { // TODO should us
                                 CapybaraPortingLayerImpl.getPageSource(driver)
                         );
                     }
+                    if (log.isAvailable()) {
+                        diagnostics.write("jenkins-test.log", log.getText());
+                    }
                     controller.diagnose(e);
                     throw e;
                 } finally {
@@ -0,0 +1,112 @@
+package org.jenkinsci.test.acceptance.junit;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jenkinsci.test.acceptance.controller.JenkinsController;
+import org.jenkinsci.test.acceptance.controller.LocalController;
+import org.jenkinsci.test.acceptance.update_center.DependencyResolver;
+import org.jenkinsci.test.acceptance.update_center.PluginMetadata;
+import org.jenkinsci.test.acceptance.update_center.PluginPrefetcher;
+import org.jenkinsci.test.acceptance.update_center.PluginSpec;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import com.google.inject.Inject;
+
+import hudson.util.VersionNumber;
+
+/**
+ * Places plugins required by {@link WithPlugins} in <tt>JENKINS_HOME</tt> before Jenkins is started.
+ *
+ * <p>
+ * When first test of a class is about to run, plugins needed by every test of the class are resolved in background.
+ * Plugins needed by the test itself are then copied to <tt>JENKINS_HOME/plugins</tt> so {@link WithPlugins} finds
+ * them installed already. In case the plugins can not be prefetched, {@link WithPlugins} installs them as usual.
+ * Tests skipped by {@link FilterRule} are not prefetched for, as this rule runs before the filter is applied.
+ *
+ * <p>
+ * Enabled by <tt>PREFETCH_PLUGINS</tt> environment variable, for local controllers only.
+ *
+ * @see PluginPrefetcher
+ */
+@GlobalRule(priority = -10) // Run before Jenkins is started
+public class PrefetchPlugins implements TestRule {
+    private static final Set<Class<?>> PREFETCHED_CLASSES = ConcurrentHashMap.newKeySet();
+
+    @Inject JenkinsController controller;
+    @Inject PluginPrefetcher prefetcher;
+    @Inject(optional = true) FilterRule.Filter filter;
+
+    @Override
+    public Statement apply(final Statement base, final Description d) {
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                if (PluginPrefetcher.isEnabled() && controller instanceof LocalController && !controller.isRunning()
+                        && !isFiltered(base, d)) {
+                    prefetch((LocalController) controller, base, d);
+                }
+                base.evaluate();
+            }
+        };
+    }
+
+    private boolean isFiltered(Statement base, Description d) {
+        return filter != null && filter.whySkip(base, d) != null;
+    }
+
+    private void prefetch(LocalController controller, Statement base, Description d) {
+        try {
+            VersionNumber version = controller.getWarVersion();
+            File pluginDir = new File(controller.getJenkinsHome(), "plugins");
+
+            Class<?> testClass = d.getTestClass();
+            if (PREFETCHED_CLASSES.add(testClass)) {
+                Map<String, List<PluginSpec>> sets = new LinkedHashMap<>();
+                for (Method m : testClass.getMethods()) {
+                    if (m.isAnnotationPresent(Test.class)
+                            && !isFiltered(base, Description.createTestDescription(testClass, m.getName(), m.getAnnotations()))) {
+                        sets.put(m.getName(), plugins(m.getAnnotation(WithPlugins.class), testClass));
+                    }
+                }
+                for (DependencyResolver.Plan plan : prefetcher.planAll(version, sets, pluginDir).values()) {
+                    // Tests that can not have their plugins installed will not run
+                    if (plan.getProblems().isEmpty()) {
+                        prefetcher.resolveAll(plan.getPlugins());
+                    }
+                }
+            }
+
+            List<PluginSpec> plugins = plugins(d.getAnnotation(WithPlugins.class), testClass);
+            if (plugins.isEmpty()) return;
+
+            List<PluginMetadata> plan = prefetcher.plan(version, plugins, pluginDir);
+            prefetcher.install(plan, pluginDir);
+            controller.preparePlugins();
+        } catch (Exception ex) {
+            LOGGER.log(Level.WARNING, "Unable to prefetch plugins, installing them after startup", ex);
+        }
+    }
+
+    private static List<PluginSpec> plugins(WithPlugins method, Class<?> testClass) {
+        List<WithPlugins> wp = new ArrayList<>();
+        wp.add(method);
+        for (Class<?> c = testClass; c != null; c = c.getSuperclass()) {
+            wp.add(c.getAnnotation(WithPlugins.class));
+        }
+        return WithPlugins.RuleImpl.combinePlugins(wp);
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(PrefetchPlugins.class.getName());
+}
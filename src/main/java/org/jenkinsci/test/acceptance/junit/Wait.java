@@ -69,6 +69,16 @@ public class Wait<Subject> extends FluentWait<Subject> {
         this.input = input;
     }
 
+    /**
+     * Create wait with configurable timer and custom sleeper.
+     *
+     * This is useful when the sleep between polls can be interrupted by an event signaling the condition might be met.
+     */
+    public Wait(Subject input, ElasticTime time, Sleeper sleeper) {
+        super(input, new ElasticClock(time), sleeper);
+        this.input = input;
+    }
+
     /**
      * Create wait with configurable timer.
      *
@@ -45,6 +45,9 @@ public @interface WithInstallWizard {
 
                 private void enableWizard(WithInstallWizard n) {
                     if (n==null) return;
+                    if (controller.isRetained()) {
+                        throw new AssumptionViolatedException("Testing the setup wizard is not supported when Jenkins is reused. Test will be skipped.");
+                    }
                     if (controller instanceof LocalController) {
                         ((LocalController) controller).setRunInstallWizard(true);
                     } else {
@@ -0,0 +1,50 @@
+package org.jenkinsci.test.acceptance.junit;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.jenkinsci.test.acceptance.controller.JenkinsController;
+import org.jenkinsci.test.acceptance.controller.JenkinsControllerReuse;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import com.google.inject.Inject;
+
+/**
+ * Indicates the test needs freshly started Jenkins even when Jenkins is reused between tests.
+ *
+ * Use this for tests that are sensitive to the state kept in memory of the running Jenkins, that is not restored
+ * by reloading the configuration from disk.
+ *
+ * @see JenkinsControllerReuse
+ */
+@Retention(RUNTIME)
+@Target({METHOD, TYPE})
+@Inherited
+@Documented
+@RuleAnnotation(value = WithIsolatedJenkins.RuleImpl.class, priority = -10) // Run before Jenkins startup
+public @interface WithIsolatedJenkins {
+
+    public class RuleImpl implements TestRule {
+        @Inject JenkinsController controller;
+        @Inject JenkinsControllerReuse reuse;
+
+        @Override
+        public Statement apply(final Statement base, final Description d) {
+            return new Statement() {
+                @Override
+                public void evaluate() throws Throwable {
+                    reuse.isolate(controller);
+                    base.evaluate();
+                }
+            };
+        }
+    }
+}
@@ -10,12 +10,15 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.jenkinsci.test.acceptance.controller.JenkinsController;
+import org.jenkinsci.test.acceptance.controller.JenkinsControllerReuse;
 import org.jenkinsci.test.acceptance.po.Jenkins;
-import org.jenkinsci.test.acceptance.po.Plugin;
 import org.jenkinsci.test.acceptance.po.PluginManager;
+import org.jenkinsci.test.acceptance.po.PluginManager.InstallationStatus;
 import org.jenkinsci.test.acceptance.update_center.PluginSpec;
 import org.jenkinsci.test.acceptance.update_center.UpdateCenterMetadata.UnableToResolveDependencies;
 import org.jenkinsci.test.acceptance.utils.pluginreporter.ExercisedPluginsReporter;
@@ -129,10 +132,10 @@ public @interface WithPlugins {
                     List<PluginSpec> plugins = combinePlugins(wp);
                     installPlugins(plugins);
 
+                    Map<String, VersionNumber> installed = jenkins.getPluginManager().getInstalledPlugins();
                     for (PluginSpec plugin : plugins) {
-                        Plugin installedPlugin = jenkins.getPlugin(plugin.getName());
-                        VersionNumber installedVersion = installedPlugin.getVersion();
-                        String version = installedVersion.toString();
+                        VersionNumber installedVersion = installed.get(plugin.getName());
+                        String version = installedVersion == null ? null : installedVersion.toString();
                         pluginReporter.log(
                                 d.getClassName() + "." + d.getMethodName(),
                                 plugin.getName(),
@@ -145,9 +148,10 @@ public @interface WithPlugins {
                 private void installPlugins(List<PluginSpec> install) {
                     PluginManager pm = jenkins.getPluginManager();
 
+                    Map<String, InstallationStatus> status = pm.installationStatus(install);
                     for (Iterator<PluginSpec> iterator = install.iterator(); iterator.hasNext(); ) {
                         PluginSpec spec = iterator.next();
-                        switch (pm.installationStatus(spec)) {
+                        switch (status.get(spec.getName())) {
                             case NOT_INSTALLED:
                                 LOGGER.info(spec + " is not installed");
                                 break;
@@ -178,6 +182,14 @@ public @interface WithPlugins {
                         } catch (UnableToResolveDependencies | IOException ex) {
                             throw new AssumptionViolatedException("Unable to install required plugins", ex);
                         }
+
+                        try {
+                            injector.getInstance(JenkinsControllerReuse.class).pluginsInstalled(
+                                    injector.getInstance(JenkinsController.class)
+                            );
+                        } catch (IOException ex) {
+                            LOGGER.log(Level.WARNING, "Failed to snapshot JENKINS_HOME with installed plugins", ex);
+                        }
                     }
                 }
             };
@@ -0,0 +1,163 @@
+package org.jenkinsci.test.acceptance.log;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link OutputStream} to a file that returns as soon as the data are copied to a ring buffer.
+ *
+ * <p>
+ * The buffer is written to the file by a background thread so the thread producing the data is not slowed down by
+ * the disk. Writes block only when the buffer is full.
+ */
+public class AsyncFileOutputStream extends OutputStream {
+    private static final int CAPACITY = 1024 * 1024;
+    private static final int CHUNK = 64 * 1024;
+
+    private final File file;
+    private final OutputStream out;
+    private final Thread writer;
+
+    private final byte[] buffer = new byte[CAPACITY];
+    /** Position of the first byte not yet written to the file. */
+    private int head;
+    /** Number of bytes not yet written to the file. */
+    private int size;
+    /** Data written to the buffer but not to the file, including the chunk being written. */
+    private long pending;
+    private boolean closed;
+    private IOException failure;
+
+    public AsyncFileOutputStream(File file) throws FileNotFoundException {
+        this.file = file;
+        this.out = new FileOutputStream(file);
+        this.writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "Log writer: " + file.getName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (closed) throw new IOException("Stream closed");
+            if (failure != null) throw failure;
+
+            if (size == CAPACITY) {
+                await();
+                continue;
+            }
+
+            int tail = (head + size) % CAPACITY;
+            int n = Math.min(len, Math.min(CAPACITY - size, CAPACITY - tail));
+            System.arraycopy(b, off, buffer, tail, n);
+            size += n;
+            pending += n;
+            off += n;
+            len -= n;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Block until everything written so far is in the file.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        while (pending > 0 && failure == null && writer.isAlive()) {
+            await();
+        }
+        if (failure != null) throw failure;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted closing " + file);
+        }
+        synchronized (this) {
+            if (failure != null) throw failure;
+        }
+    }
+
+    private void drain() {
+        byte[] chunk = new byte[CHUNK];
+        try {
+            while (true) {
+                int n;
+                synchronized (this) {
+                    while (size == 0 && !closed) {
+                        wait();
+                    }
+                    if (size == 0) break; // Closed and drained
+
+                    n = Math.min(size, Math.min(CHUNK, CAPACITY - head));
+                    System.arraycopy(buffer, head, chunk, 0, n);
+                    head = (head + n) % CAPACITY;
+                    size -= n;
+                    notifyAll();
+                }
+
+                out.write(chunk, 0, n);
+                synchronized (this) {
+                    if (size == 0) {
+                        out.flush();
+                    }
+                    pending -= n;
+                    notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+                notifyAll();
+            }
+            LOGGER.log(Level.WARNING, "Unable to write " + file, e);
+        } catch (InterruptedException e) {
+            LOGGER.log(Level.WARNING, "Interrupted writing " + file, e);
+        } finally {
+            try {
+                out.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to close " + file, e);
+            }
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    private void await() throws InterruptedIOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted writing " + file);
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncFileOutputStream.class.getName());
+}
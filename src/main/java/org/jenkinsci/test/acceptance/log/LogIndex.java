@@ -0,0 +1,262 @@
+package org.jenkinsci.test.acceptance.log;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Append-only, in-memory copy of a log that can be queried without reading the log file or Jenkins UI.
+ *
+ * <p>
+ * Lines are stored in fixed size segments together with the time they were received and their offset in the log,
+ * so appending never copies previously received lines. Positions in the log are captured as {@link Marker}s and
+ * the queries are limited to what was logged since.
+ *
+ * <p>
+ * Only lines since the oldest {@linkplain #retain() retained} marker are guaranteed to be kept. Older segments are
+ * dropped, and so are lines logged while nothing is retained except for the last segments, so the index does not grow
+ * for the whole life of the controller.
+ *
+ * <p>
+ * Register this as {@link LogListener} to {@link LogListenable}.
+ */
+public class LogIndex implements LogListener {
+    private static final int SEGMENT_SIZE = 4096;
+
+    private final List<Line[]> segments = new ArrayList<>();
+    private final List<Marker> retained = new ArrayList<>();
+    /** Number of the first line still kept. */
+    private int first;
+    /** Number of lines received. */
+    private int size;
+    /** Number of characters received, line terminators included. */
+    private long offset;
+
+    /**
+     * A line of the log.
+     */
+    public static final class Line {
+        private final int number;
+        private final long offset;
+        private final long timestamp;
+        private final String text;
+
+        private Line(int number, long offset, long timestamp, String text) {
+            this.number = number;
+            this.offset = offset;
+            this.timestamp = timestamp;
+            this.text = text;
+        }
+
+        /**
+         * Zero based index of the line in the log.
+         */
+        public int getNumber() {
+            return number;
+        }
+
+        /**
+         * Position of the first character of the line in the log.
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * Time the line was received by the harness.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public @Nonnull String getText() {
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * Position in the log.
+     */
+    public static final class Marker {
+        private final int line;
+        private final long timestamp;
+
+        private Marker(int line, long timestamp) {
+            this.line = line;
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * Time the marker was created.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line;
+        }
+    }
+
+    @Override
+    public synchronized void processLine(String line) {
+        int segment = size / SEGMENT_SIZE;
+        if (segment == segments.size()) {
+            segments.add(new Line[SEGMENT_SIZE]);
+            drop();
+        }
+        segments.get(segment)[size % SEGMENT_SIZE] = new Line(size, offset, System.currentTimeMillis(), line);
+        size++;
+        offset += line.length() + 1;
+        notifyAll();
+    }
+
+    /**
+     * The log is not over as Jenkins is often started again using the same log.
+     */
+    @Override
+    public synchronized void processClose(Exception t) {
+        notifyAll();
+    }
+
+    /**
+     * Mark current end of the log.
+     */
+    public synchronized @Nonnull Marker mark() {
+        return new Marker(size, System.currentTimeMillis());
+    }
+
+    /**
+     * Mark current end of the log and keep the lines logged since until the marker is released.
+     */
+    public synchronized @Nonnull Marker retain() {
+        Marker marker = mark();
+        retained.add(marker);
+        return marker;
+    }
+
+    /**
+     * Stop keeping lines for the marker.
+     */
+    public synchronized void release(@Nonnull Marker marker) {
+        retained.remove(marker);
+    }
+
+    /**
+     * Drop segments no retained marker needs, but the last complete one.
+     */
+    private void drop() {
+        int keep = size;
+        for (Marker marker : retained) {
+            keep = Math.min(keep, marker.line);
+        }
+        int segment = Math.min(keep / SEGMENT_SIZE, segments.size() - 2);
+        for (int i = first / SEGMENT_SIZE; i < segment; i++) {
+            segments.set(i, null);
+        }
+        first = Math.max(first, segment * SEGMENT_SIZE);
+    }
+
+    /**
+     * Lines logged since the marker, those already dropped excluded.
+     */
+    public synchronized @Nonnull List<Line> since(@Nonnull Marker marker) {
+        int from = Math.max(marker.line, first);
+        if (from >= size) return Collections.emptyList();
+
+        List<Line> lines = new ArrayList<>(size - from);
+        for (int i = from; i < size; i++) {
+            lines.add(get(i));
+        }
+        return lines;
+    }
+
+    /**
+     * Find the first line logged since the marker that contains the pattern.
+     *
+     * @return null if there is no such line.
+     */
+    public @CheckForNull Matcher find(@Nonnull Pattern pattern, @Nonnull Marker marker) {
+        for (Line line : since(marker)) {
+            Matcher m = pattern.matcher(line.getText());
+            if (m.find()) return m;
+        }
+        return null;
+    }
+
+    /**
+     * Wait for a line containing the pattern to be logged since the marker.
+     *
+     * @return null if no such line was logged within the timeout.
+     */
+    public @CheckForNull Matcher await(
+            @Nonnull Pattern pattern, @Nonnull Marker marker, long timeout, @Nonnull TimeUnit unit
+    ) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        int next = marker.line;
+        while (true) {
+            List<Line> lines;
+            synchronized (this) {
+                long remaining = deadline - System.currentTimeMillis();
+                while (next >= size) {
+                    if (remaining <= 0) return null;
+                    wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+                next = Math.max(next, first);
+                lines = new ArrayList<>(size - next);
+                for (; next < size; next++) {
+                    lines.add(get(next));
+                }
+            }
+
+            for (Line line : lines) {
+                Matcher m = pattern.matcher(line.getText());
+                if (m.find()) return m;
+            }
+        }
+    }
+
+    /**
+     * Wait for any line to be logged after the marker.
+     *
+     * @return true if there is such line, false if the timeout elapsed.
+     */
+    public synchronized boolean awaitLine(@Nonnull Marker marker, long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        while (marker.line >= size) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) return false;
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Write lines logged since the marker.
+     */
+    public void writeTo(@Nonnull Writer writer, @Nonnull Marker marker) throws IOException {
+        for (Line line : since(marker)) {
+            writer.write(line.getText());
+            writer.write('\n');
+        }
+    }
+
+    private Line get(int line) {
+        return segments.get(line / SEGMENT_SIZE)[line % SEGMENT_SIZE];
+    }
+}
@@ -0,0 +1,77 @@
+package org.jenkinsci.test.acceptance.log;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.openqa.selenium.support.ui.Duration;
+import org.openqa.selenium.support.ui.Sleeper;
+
+/**
+ * {@link Sleeper} woken up as soon as a line matching the pattern is logged.
+ *
+ * <p>
+ * This permits to wait for an event that is reported in the log instead of polling frequently. As the log line
+ * is only a hint, the condition is still reevaluated after the wake up. Consecutive sleeps without the log line
+ * are getting exponentially longer (starting at the polling interval of the wait) so the polling is not too
+ * frequent when the log line does not arrive at all.
+ *
+ * <p>
+ * Register this as {@link LogListener} to {@link LogListenable} for the time of the wait.
+ */
+public class LogSleeper implements Sleeper, LogListener {
+    private final @CheckForNull Pattern pattern;
+    private final long maxSleep;
+
+    private long lastSleep = 0;
+    private boolean signaled = false;
+
+    /**
+     * @param pattern Log line to wake up on. Null to only back off exponentially.
+     * @param maxSleep Upper bound for individual sleeps in milliseconds.
+     */
+    public LogSleeper(@CheckForNull Pattern pattern, long maxSleep) {
+        this.pattern = pattern;
+        this.maxSleep = maxSleep;
+    }
+
+    @Override
+    public synchronized void sleep(@Nonnull Duration duration) throws InterruptedException {
+        long sleep = lastSleep == 0
+                ? duration.in(TimeUnit.MILLISECONDS)
+                : Math.min(lastSleep * 2, maxSleep)
+        ;
+        lastSleep = sleep;
+
+        long deadline = System.currentTimeMillis() + sleep;
+        while (!signaled) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) return;
+            wait(remaining);
+        }
+
+        // Something happened, poll frequently for a while
+        signaled = false;
+        lastSleep = 0;
+    }
+
+    @Override
+    public void processLine(String line) throws IOException {
+        if (pattern != null && pattern.matcher(line).find()) {
+            signal();
+        }
+    }
+
+    @Override
+    public void processClose(Exception t) {
+        signal();
+    }
+
+    private synchronized void signal() {
+        signaled = true;
+        notifyAll();
+    }
+}
@@ -3,6 +3,10 @@ package org.jenkinsci.test.acceptance.log;
 import org.apache.http.concurrent.BasicFuture;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -10,6 +14,10 @@ import java.util.regex.Pattern;
 /**
  * Receives log as {@link LogListener}, and  provides a regular expression pattern matching.
  *
+ * <p>
+ * Patterns of all watchers are matched at once by {@link MultiPatternMatcher}, so each line is scanned only once
+ * regardless of the number of watchers, and regular expressions are evaluated for likely matches only.
+ *
  * @author Vivek Pandey
  * @author Kohsuke Kawaguchi
  */
@@ -19,9 +27,18 @@ public class LogWatcher implements LogListener {
      */
     protected final LogSplitter splitter = new LogSplitter();
 
+    /**
+     * Watchers and the matcher of their patterns, replaced whenever watchers change.
+     */
+    private volatile Snapshot snapshot = new Snapshot(Collections.<Watcher>emptyList());
+
     @Override
     public void processLine(String line) throws IOException {
-        splitter.processLine(line);
+        Snapshot s = snapshot;
+        BitSet candidates = s.matcher.candidates(line);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            s.watchers.get(i).processLine(line);
+        }
     }
 
     @Override
@@ -37,9 +54,32 @@ public class LogWatcher implements LogListener {
     public Future<Matcher> watch(Pattern regexp) {
         Watcher w = new Watcher(regexp);
         splitter.addLogListener(w);
+        updateSnapshot();
         return w;
     }
 
+    private synchronized void updateSnapshot() {
+        List<Watcher> watchers = new ArrayList<>();
+        for (LogListener l : splitter.getListeners()) {
+            watchers.add((Watcher) l);
+        }
+        snapshot = new Snapshot(watchers);
+    }
+
+    private static final class Snapshot {
+        private final List<Watcher> watchers;
+        private final MultiPatternMatcher matcher;
+
+        private Snapshot(List<Watcher> watchers) {
+            this.watchers = watchers;
+            List<Pattern> patterns = new ArrayList<>();
+            for (Watcher w : watchers) {
+                patterns.add(w.pattern);
+            }
+            this.matcher = new MultiPatternMatcher(patterns);
+        }
+    }
+
     class Watcher extends BasicFuture<Matcher> implements LogListener {
         private final Pattern pattern;
 
@@ -50,10 +90,13 @@ public class LogWatcher implements LogListener {
 
         @Override
         public void processLine(String line) throws IOException {
+            if (isDone()) return;
+
             Matcher m = pattern.matcher(line);
             if (m.find()) {
                 completed(m);
                 splitter.removeLogListener(this);
+                updateSnapshot();
             }
         }
 
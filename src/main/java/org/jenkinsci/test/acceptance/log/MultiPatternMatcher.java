@@ -0,0 +1,192 @@
+package org.jenkinsci.test.acceptance.log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Pattern;
+
+/**
+ * Finds which of several patterns may match a line scanning the line only once.
+ *
+ * <p>
+ * A literal every match of a pattern needs to contain is extracted from each pattern, where possible. Literals of all
+ * the patterns are looked up at once using Aho-Corasick automaton. Only patterns whose literal was found, or that
+ * have no literal, are reported as candidates to be confirmed by the regular expression itself.
+ */
+final class MultiPatternMatcher {
+    private static final String META = "\\.[]{}()*+?^$|";
+    /**
+     * Escapes followed by more than one character.
+     */
+    private static final String MULTI_CHAR_ESCAPES = "xu0cNpPk";
+    private static final int MIN_LITERAL = 3;
+
+    private final Node root = new Node();
+    /** Patterns without literal, always candidates. */
+    private final BitSet unfiltered = new BitSet();
+
+    MultiPatternMatcher(List<Pattern> patterns) {
+        for (int i = 0; i < patterns.size(); i++) {
+            String literal = literal(patterns.get(i));
+            if (literal == null) {
+                unfiltered.set(i);
+            } else {
+                add(literal, i);
+            }
+        }
+        link();
+    }
+
+    /**
+     * Indices of patterns that may match the line.
+     */
+    BitSet candidates(CharSequence line) {
+        BitSet candidates = (BitSet) unfiltered.clone();
+        Node state = root;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            while (state != root && !state.next.containsKey(c)) {
+                state = state.fail;
+            }
+            Node next = state.next.get(c);
+            state = next == null ? root : next;
+            for (int p : state.outputs) {
+                candidates.set(p);
+            }
+        }
+        return candidates;
+    }
+
+    private void add(String literal, int pattern) {
+        Node n = root;
+        for (char c : literal.toCharArray()) {
+            Node next = n.next.get(c);
+            if (next == null) {
+                next = new Node();
+                n.next.put(c, next);
+            }
+            n = next;
+        }
+        n.outputs = append(n.outputs, pattern);
+    }
+
+    /**
+     * Compute failure links and merge outputs reachable through them.
+     */
+    private void link() {
+        Queue<Node> queue = new ArrayDeque<>();
+        root.fail = root;
+        for (Node child : root.next.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node n = queue.remove();
+            for (Map.Entry<Character, Node> e : n.next.entrySet()) {
+                char c = e.getKey();
+                Node child = e.getValue();
+                Node f = n.fail;
+                while (f != root && !f.next.containsKey(c)) {
+                    f = f.fail;
+                }
+                Node target = f.next.get(c);
+                child.fail = target == null || target == child ? root : target;
+                for (int p : child.fail.outputs) {
+                    child.outputs = append(child.outputs, p);
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] ret = Arrays.copyOf(array, array.length + 1);
+        ret[array.length] = value;
+        return ret;
+    }
+
+    /**
+     * Longest literal all matches of the pattern contain, or null if it can not be determined reliably.
+     */
+    static String literal(Pattern pattern) {
+        if ((pattern.flags() & (Pattern.CASE_INSENSITIVE | Pattern.LITERAL | Pattern.COMMENTS)) != 0) return null;
+
+        String regex = pattern.pattern();
+        if (regex.contains("|") || regex.contains("\\Q") || regex.contains("(?")) return null;
+
+        List<String> literals = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        int depth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            char literal;
+            if (c == '\\' && i + 1 < regex.length() && MULTI_CHAR_ESCAPES.indexOf(regex.charAt(i + 1)) >= 0) {
+                // Hex, octal, control character, unicode name or property, named group
+                return null;
+            } else if (c == '\\' && i + 1 < regex.length() && META.indexOf(regex.charAt(i + 1)) >= 0) {
+                literal = regex.charAt(++i);
+            } else if (c == '\\' || c == '[' || c == '(' || c == ')' || c == '.' || c == '^' || c == '$') {
+                if (c == '(') depth++;
+                if (c == ')') depth--;
+                if (c == '[') {
+                    // Skip the character class
+                    while (i + 1 < regex.length() && regex.charAt(i + 1) != ']') {
+                        char cc = regex.charAt(++i);
+                        if (cc == '[' || (cc == '&' && i + 1 < regex.length() && regex.charAt(i + 1) == '&')) {
+                            // Nested class, union or intersection does not end at the first ']'
+                            return null;
+                        }
+                        if (cc == '\\') i++;
+                    }
+                    i++;
+                }
+                if (c == '\\') i++; // Character class escape like \d or \s
+                flush(run, literals);
+                continue;
+            } else if (c == '*' || c == '?' || c == '{' || c == '+') {
+                // Preceding character may be missing
+                if (c != '+' && run.length() > 0) run.setLength(run.length() - 1);
+                if (c == '{') {
+                    while (i + 1 < regex.length() && regex.charAt(i) != '}') i++;
+                }
+                flush(run, literals);
+                continue;
+            } else {
+                literal = c;
+            }
+
+            if (depth == 0) {
+                run.append(literal);
+            } else {
+                flush(run, literals);
+            }
+        }
+        flush(run, literals);
+
+        String longest = null;
+        for (String l : literals) {
+            if (longest == null || l.length() > longest.length()) {
+                longest = l;
+            }
+        }
+        return longest == null || longest.length() < MIN_LITERAL ? null : longest;
+    }
+
+    private static void flush(StringBuilder run, List<String> literals) {
+        if (run.length() > 0) {
+            literals.add(run.toString());
+            run.setLength(0);
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> next = new HashMap<>();
+        private Node fail;
+        private int[] outputs = new int[0];
+    }
+}
@@ -0,0 +1,165 @@
+package org.jenkinsci.test.acceptance.log;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.test.acceptance.controller.JenkinsController;
+import org.jenkinsci.test.acceptance.guice.AutoCleaned;
+import org.jenkinsci.test.acceptance.guice.TestScope;
+import org.openqa.selenium.support.ui.Duration;
+import org.openqa.selenium.support.ui.Sleeper;
+
+import com.google.inject.Inject;
+
+/**
+ * Jenkins log written during the current test, answered from {@link LogIndex} of the controller.
+ *
+ * <p>
+ * Lines are grouped into log records so the messages can be matched the same way Jenkins log recorder presents them.
+ * Nothing is available when the controller does not provide the log to the harness.
+ *
+ * @see JenkinsController#getLogIndex()
+ */
+@TestScope
+public class TestLog implements AutoCleaned {
+    /**
+     * First line of a record in format of {@link java.util.logging.SimpleFormatter}, the message is on the next line.
+     */
+    private static final Pattern SIMPLE_HEADER = Pattern.compile("^\\w{3} \\d{1,2}, \\d{4} \\d{1,2}:\\d{2}:\\d{2} [AP]M \\S+.*$");
+    private static final Pattern SIMPLE_MESSAGE = Pattern.compile("^(?:SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST): (.*)$");
+    /**
+     * Record in format of Jenkins <tt>SupportLogFormatter</tt>.
+     */
+    private static final Pattern SUPPORT_HEADER = Pattern.compile("^\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}[+-]\\d{4} \\[id=\\d+\\]\\t\\w+\\t\\S+: (.*)$");
+
+    private final @CheckForNull LogIndex index;
+    private final @CheckForNull LogIndex.Marker start;
+
+    @Inject
+    public TestLog(JenkinsController controller) {
+        index = controller.getLogIndex();
+        start = index == null ? null : index.retain();
+    }
+
+    /**
+     * Let the index drop the lines of this test.
+     */
+    @Override
+    public void close() {
+        if (index != null) {
+            index.release(start);
+        }
+    }
+
+    /**
+     * Whether the log is available to the harness.
+     */
+    public boolean isAvailable() {
+        return index != null;
+    }
+
+    /**
+     * Lines logged since the test started.
+     */
+    public @Nonnull List<LogIndex.Line> getLines() {
+        if (index == null) return Collections.emptyList();
+        return index.since(start);
+    }
+
+    /**
+     * Wait for a line containing the pattern to be logged since the test started.
+     *
+     * @return null if no such line was logged within the timeout or the log is not available.
+     */
+    public @CheckForNull Matcher await(@Nonnull Pattern pattern, long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+        if (index == null) return null;
+        return index.await(pattern, start, timeout, unit);
+    }
+
+    /**
+     * Messages of log records logged since the test started, including the exception stack traces.
+     */
+    public @Nonnull List<String> getRecords() {
+        List<String> records = new ArrayList<>();
+        StringBuilder record = null;
+        boolean messageExpected = false;
+        for (LogIndex.Line line : getLines()) {
+            String text = line.getText();
+            if (messageExpected) {
+                messageExpected = false;
+                Matcher m = SIMPLE_MESSAGE.matcher(text);
+                if (m.matches()) {
+                    record = new StringBuilder(m.group(1));
+                    continue;
+                }
+            }
+
+            Matcher m = SUPPORT_HEADER.matcher(text);
+            if (m.matches()) {
+                if (record != null) records.add(record.toString());
+                record = new StringBuilder(m.group(1));
+            } else if (SIMPLE_HEADER.matcher(text).matches()) {
+                if (record != null) records.add(record.toString());
+                record = null;
+                messageExpected = true;
+            } else if (record != null) {
+                record.append('\n').append(text);
+            } else {
+                record = new StringBuilder(text);
+            }
+        }
+        if (record != null) records.add(record.toString());
+        return records;
+    }
+
+    /**
+     * Whether a record whose message matches the pattern was logged since the test started.
+     */
+    public boolean hasRecord(@Nonnull Pattern pattern) {
+        for (String record : getRecords()) {
+            if (pattern.matcher(record).matches()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * {@link Sleeper} woken up as soon as anything is logged, to wait for log records without polling.
+     */
+    public @Nonnull Sleeper newSleeper() {
+        if (index == null) return Sleeper.SYSTEM_SLEEPER;
+
+        return new Sleeper() {
+            private LogIndex.Marker seen = index.mark();
+
+            @Override
+            public void sleep(Duration duration) throws InterruptedException {
+                index.awaitLine(seen, duration.in(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+                seen = index.mark();
+            }
+        };
+    }
+
+    /**
+     * Lines logged since the test started.
+     */
+    public @Nonnull String getText() {
+        if (index == null) return "";
+
+        StringWriter writer = new StringWriter();
+        try {
+            index.writeTo(writer, start);
+        } catch (IOException e) {
+            throw new AssertionError(e); // StringWriter does not throw
+        }
+        return writer.toString();
+    }
+}
@@ -13,6 +13,7 @@ import org.jenkinsci.test.acceptance.po.AbstractListViewColumn;
 import org.jenkinsci.test.acceptance.po.Build;
 import org.jenkinsci.test.acceptance.po.ContainerPageObject;
 import org.jenkinsci.test.acceptance.po.Job;
+import org.jenkinsci.test.acceptance.po.TableSnapshot;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 
@@ -220,7 +221,10 @@ public abstract class AnalysisAction extends ContainerPageObject {
      * @return Integer value of webelement as Integer object
      */
     protected Integer asInteger(WebElement e) {
-        String trimmedText = e.getText().trim();
+        return asInteger(e.getText().trim());
+    }
+
+    private Integer asInteger(String trimmedText) {
         // if no line number is given, sometimes a '-' is returned
         if ("-".equals(trimmedText)) {
             return 0;
@@ -382,7 +386,7 @@ public abstract class AnalysisAction extends ContainerPageObject {
      */
     // TODO: actually the content of each row should be validated
     public int getNumberOfRowsInFixedWarningsTable() {
-        return getVisibleTableRows(true, false, find(by.xpath("//table[@id='fixed']"))).size();
+        return getVisibleTableRows(true, false, snapshotTable(by.xpath("//table[@id='fixed']"))).size();
     }
 
     /**
@@ -404,11 +408,9 @@ public abstract class AnalysisAction extends ContainerPageObject {
         final SortedMap<String, String> result = new TreeMap<>();
 
         for(WebElement element : table) {
-            final List<WebElement> rows = element.findElements(by.xpath("./tbody/tr/td"));
-            if(rows.size() > 1) {
-                String key = asTrimmedString(rows.get(0));
-                String value = asTrimmedString(rows.get(1));
-                result.put(key, value);
+            final List<TableSnapshot.Cell> cells = snapshotTable(element).getCells();
+            if(cells.size() > 1) {
+                result.put(cells.get(0).getText(), cells.get(1).getText());
             }
         }
 
@@ -423,13 +425,13 @@ public abstract class AnalysisAction extends ContainerPageObject {
         return mapTableCellsKeyValue(type, getVisibleTableRows(removeHeader, removeFooter), 1);
     }
 
-    protected List<WebElement> getVisibleTableRows(boolean removeHeader, boolean removeFooter) {
-        WebElement table = find(by.xpath("//div[@id='statistics']/div/div/table"));
+    protected List<TableSnapshot.Row> getVisibleTableRows(boolean removeHeader, boolean removeFooter) {
+        TableSnapshot table = snapshotTable(by.xpath("//div[@id='statistics']/div/div/table"));
         return getVisibleTableRows(removeHeader, removeFooter, table);
     }
 
-    private List<WebElement> getVisibleTableRows(final boolean removeHeader, final boolean removeFooter, final WebElement table) {
-        final List<WebElement> immediateChildRows = table.findElements(by.xpath("./tbody/tr"));
+    private List<TableSnapshot.Row> getVisibleTableRows(final boolean removeHeader, final boolean removeFooter, final TableSnapshot table) {
+        final List<TableSnapshot.Row> immediateChildRows = new ArrayList<>(table.getRows());
 
         if (removeHeader) {
             immediateChildRows.remove(0);
@@ -442,7 +444,7 @@ public abstract class AnalysisAction extends ContainerPageObject {
         return immediateChildRows;
     }
 
-    private SortedMap<String, Integer> mapTableCellsKeyValue(final Collection<WebElement> rows) {
+    private SortedMap<String, Integer> mapTableCellsKeyValue(final Collection<TableSnapshot.Row> rows) {
         return mapTableCellsKeyValue(Integer.class, rows, 1);
     }
 
@@ -453,17 +455,16 @@ public abstract class AnalysisAction extends ContainerPageObject {
      * At the moment the only supported types are Integer and String. Calling this method for other types results in a
      * {@link java.lang.IllegalStateException}.
      */
-    private <T> SortedMap<String, T> mapTableCellsKeyValue(Class<T> type, final Collection<WebElement> rows, final int index) {
+    private <T> SortedMap<String, T> mapTableCellsKeyValue(Class<T> type, final Collection<TableSnapshot.Row> rows, final int index) {
         final SortedMap<String, T> result = new TreeMap<>();
-        for (WebElement elem : rows) {
-            final List<WebElement> cells = elem.findElements(by.xpath("./td"));
-            final String key = asTrimmedString(cells.get(0));
+        for (TableSnapshot.Row row : rows) {
+            final String key = row.getCell(0).getText();
             T value = null;
             if (type.isAssignableFrom(Integer.class)) {
-                value = type.cast(asInteger(cells.get(index)));
+                value = type.cast(asInteger(row.getCell(index).getText()));
             }
             else if (type.isAssignableFrom(String.class)) {
-                value = type.cast(asTrimmedString(cells.get(index)));
+                value = type.cast(row.getCell(index).getText());
             }
             else {
                 throw new IllegalStateException("Parameter type (" +
@@ -559,7 +560,7 @@ public abstract class AnalysisAction extends ContainerPageObject {
 
     private void selectWarning(final String fileName, final int line) {
         find(by.xpath(".//A[text() = '" + fileName + ":" + line + "']")).click();
-        elasticSleep(500);
+        waitForPageReady();
     }
 
     /**
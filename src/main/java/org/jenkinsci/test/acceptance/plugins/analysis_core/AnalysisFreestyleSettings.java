@@ -37,7 +37,7 @@ public abstract class AnalysisFreestyleSettings extends AnalysisSettings {
     public String validatePattern(final String value) {
         pattern.set(value);
         pattern.sendKeys("\t");
-        elasticSleep(50); // wait for validation
+        waitForPageReady(); // wait for validation
 
         // TODO: Use pattern to find the error div rather than the publisher
         WebElement element = find(by.xpath("//div[@name='publisher']"));
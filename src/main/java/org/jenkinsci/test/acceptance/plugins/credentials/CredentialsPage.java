@@ -70,7 +70,7 @@ public class CredentialsPage extends ConfigurablePageObject {
             return;
         }
         visit(deleteUrl);
-        elasticSleep(1000); // configure page requires some time to load
+        waitForPageReady();
         clickButton("Yes");
     }
 
@@ -38,7 +38,7 @@ public class JCloudsSlaveTemplate extends PageAreaImpl {
 
     public JCloudsSlaveTemplate hardwareId(String value) {
         control("useHardwareId[true]").check();
-        elasticSleep(5000); // wait for select to populate
+        waitForPageReady(); // wait for select to populate
         control("hardwareId").select(value);
         return this;
     }
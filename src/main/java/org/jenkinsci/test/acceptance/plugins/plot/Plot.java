@@ -40,7 +40,7 @@ public class Plot extends PageAreaImpl{
     public <S extends DataSeries> S addDataSeries(Class<S> seriesClass){
         if (this.series.size()>=1){
             control("repeatable-add").click();
-            elasticSleep(500);
+            waitForPageReady();
         }
 
         S series;
@@ -144,7 +144,7 @@ public class Script extends CapybaraPortingLayerImpl {
             if (addButton != null) {
                 addButton.click();
 
-                elasticSleep(1000); // wait for new parameter to appear
+                waitForPageReady(); // wait for new parameter to appear
                 String path = find(by.button("Add Parameter")).getAttribute("path");
                 prefix = path.substring(0, path.length() - 25);
             }
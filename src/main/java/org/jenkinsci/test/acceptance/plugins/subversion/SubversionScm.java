@@ -42,7 +42,7 @@ public class SubversionScm extends Scm {
         WebElement linkToCredentialPage;
         String urlString = null;
         try {
-            elasticSleep(1000);
+            waitForPageReady();
             linkToCredentialPage = this.find(by.link("enter credential"));
             urlString = linkToCredentialPage.getAttribute("href");
             urlOfCredentialPage = new URL(urlString);
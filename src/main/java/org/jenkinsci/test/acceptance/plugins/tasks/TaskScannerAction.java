@@ -10,7 +10,7 @@ import org.jenkinsci.test.acceptance.plugins.dashboard_view.AbstractDashboardVie
 import org.jenkinsci.test.acceptance.po.AbstractListViewColumn;
 import org.jenkinsci.test.acceptance.po.Build;
 import org.jenkinsci.test.acceptance.po.Job;
-import org.openqa.selenium.WebElement;
+import org.jenkinsci.test.acceptance.po.TableSnapshot;
 
 /**
  * Page object for Task Scanner action.
@@ -79,11 +79,9 @@ public class TaskScannerAction extends AnalysisAction {
     public List<String> getCertainWarningsTabRow(final String key) {
         openTab(Tab.WARNINGS);
 
-        List<WebElement> rows = getVisibleTableRows(true, false);
-        for (WebElement elem : rows) {
-            List<WebElement> cells = elem.findElements(by.xpath("./td"));
-            if (key.equals(asTrimmedString(cells.get(0)))) {
-                return asTrimmedStringList(cells);
+        for (TableSnapshot.Row row : getVisibleTableRows(true, false)) {
+            if (key.equals(row.getCell(0).getText())) {
+                return row.getTexts();
             }
         }
         throw new NoSuchElementException();
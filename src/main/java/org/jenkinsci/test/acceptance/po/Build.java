@@ -12,7 +12,10 @@ import org.apache.commons.io.IOUtils;
 import org.hamcrest.Description;
 import org.jenkinsci.test.acceptance.Matcher;
 import org.jenkinsci.test.acceptance.Matchers;
+import org.jenkinsci.test.acceptance.controller.JenkinsController;
 import org.jenkinsci.test.acceptance.junit.Wait;
+import org.jenkinsci.test.acceptance.log.LogListenable;
+import org.jenkinsci.test.acceptance.log.LogSleeper;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.WebElement;
@@ -28,6 +31,16 @@ import static org.jenkinsci.test.acceptance.Matchers.pageObjectExists;
 public class Build extends ContainerPageObject {
     public enum Result {SUCCESS, UNSTABLE, FAILURE, ABORTED, NOT_BUILT}
 
+    /**
+     * Logged by Jenkins once the main part of any build is done, the build can still be post-processing then.
+     */
+    private static final Pattern BUILD_COMPLETED = Pattern.compile(" main build action completed: ");
+
+    /**
+     * Longest interval between status checks when waiting for the build.
+     */
+    private static final long MAX_POLLING_INTERVAL = 3000;
+
     public final Job job;
 
     private Result result;
@@ -70,7 +83,7 @@ public class Build extends ContainerPageObject {
     }
 
     public Build waitUntilStarted(int timeout) {
-        waitFor().withMessage("Next build of %s is started", job)
+        waitForBuild(new LogSleeper(null, MAX_POLLING_INTERVAL)).withMessage("Next build of %s is started", job)
                 .withTimeout(timeout, TimeUnit.SECONDS)
                 .until(new Callable<Boolean>() {
                     @Override
@@ -107,22 +120,42 @@ public class Build extends ContainerPageObject {
         // one can see what the build is doing
         visit("console");
 
-        waitFor().withMessage("Build %s is finished", this)
-                .withTimeout(timeout, TimeUnit.SECONDS)
-                .until(new Wait.Predicate<Boolean>() {
-                    @Override
-                    public Boolean apply() throws Exception {
-                        return !isInProgress();
-                    }
+        // Jenkins logs completion of every build so there is no need to poll frequently when the log is available
+        LogSleeper sleeper = new LogSleeper(BUILD_COMPLETED, MAX_POLLING_INTERVAL);
+        JenkinsController controller = injector.getInstance(JenkinsController.class);
+        LogListenable log = controller instanceof LogListenable ? (LogListenable) controller : null;
+        if (log != null) {
+            log.addLogListener(sleeper);
+        }
 
-                    @Override
-                    public String diagnose(Throwable lastException, String message) {
-                        return "Console output:\n" + Build.this.getConsole() + "\n";
-                    }
-        });
+        try {
+            waitForBuild(sleeper).withMessage("Build %s is finished", this)
+                    .withTimeout(timeout, TimeUnit.SECONDS)
+                    .until(new Wait.Predicate<Boolean>() {
+                        @Override
+                        public Boolean apply() throws Exception {
+                            return !isInProgress();
+                        }
+
+                        @Override
+                        public String diagnose(Throwable lastException, String message) {
+                            return "Console output:\n" + Build.this.getConsole() + "\n";
+                        }
+            });
+        } finally {
+            if (log != null) {
+                log.removeLogListener(sleeper);
+            }
+        }
         return this;
     }
 
+    private Wait<Build> waitForBuild(LogSleeper sleeper) {
+        return new Wait<>(this, time, sleeper)
+                .pollingEvery(500, TimeUnit.MILLISECONDS)
+        ;
+    }
+
     public boolean isInProgress() {
         if (result != null) {
             return false;
@@ -54,6 +54,11 @@ public interface CapybaraPortingLayer {
     /** Wait until a matcher matches. */
     <MatcherT, SubjectT extends MatcherT> void waitFor(SubjectT item, org.hamcrest.Matcher<MatcherT> matcher, int timeoutSec);
 
+    /**
+     * Wait until the page is loaded, its Ajax requests are completed and forms initialized.
+     */
+    void waitForPageReady();
+
     /**
      * Returns the first visible element that matches the selector.
      *
@@ -132,6 +137,19 @@ public interface CapybaraPortingLayer {
      */
     Object executeScript(String javaScript, Object... args);
 
+    /**
+     * Reads the content of the table in one go.
+     *
+     * Prefer this to iterating over rows and cells when reading the whole table as that costs a round trip to the
+     * browser for every element.
+     */
+    TableSnapshot snapshotTable(WebElement table);
+
+    /**
+     * Reads the content of the table that matches given selector in one go.
+     */
+    TableSnapshot snapshotTable(By selector);
+
     /**
      * @param locator Text, ID, or link.
      */
@@ -2,12 +2,15 @@ package org.jenkinsci.test.acceptance.po;
 
 import javax.inject.Inject;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.net.URL;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
+import org.apache.commons.io.IOUtils;
 import org.hamcrest.StringDescription;
 import org.jenkinsci.test.acceptance.junit.Resource;
 import org.jenkinsci.test.acceptance.junit.Wait;
@@ -19,6 +22,7 @@ import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 
 import com.google.common.base.Joiner;
@@ -36,6 +40,24 @@ import static java.util.Arrays.*;
  */
 @SuppressWarnings("CdiManagedBeanInconsistencyInspection")
 public class CapybaraPortingLayerImpl implements CapybaraPortingLayer {
+    private static final String PAGE_READY_JS;
+    static {
+        try {
+            PAGE_READY_JS = IOUtils.toString(CapybaraPortingLayerImpl.class.getResourceAsStream("page-ready.js"));
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Time without Ajax activity for the page to be considered settled.
+     */
+    private static final long PAGE_QUIET_PERIOD = 100;
+    /**
+     * Message of script failures caused by navigation, like "document unloaded while waiting for result".
+     */
+    private static final Pattern PAGE_UNLOADED = Pattern.compile("(?i)unload");
+
     /**
      * {@link org.openqa.selenium.WebDriver} that subtypes use to talk to the server.
      */
@@ -51,6 +73,9 @@ public class CapybaraPortingLayerImpl implements CapybaraPortingLayer {
     @Inject
     protected ElasticTime time;
 
+    @Inject
+    private VisibleElementFinder finder;
+
     /**
      * Some subtypes are constructed via Guice, in which case injection is done by outside this class.
      * The injector parameter should be null for that case.
@@ -88,7 +113,9 @@ public class CapybaraPortingLayerImpl implements CapybaraPortingLayer {
      * @param url URL relative to the context path of Jenkins, such as "/about" or "/job/foo/configure".
      */
     protected final WebDriver visit(URL url) {
+        long start = System.currentTimeMillis();
         driver.get(url.toExternalForm());
+        ElasticTime.record(ElasticTime.Category.PAGE, System.currentTimeMillis() - start);
         return driver;
     }
 
@@ -193,6 +220,40 @@ public class CapybaraPortingLayerImpl implements CapybaraPortingLayer {
         ;
     }
 
+    /**
+     * Wait until the page is loaded, its Ajax requests are completed and forms initialized.
+     *
+     * <p>
+     * Use this instead of sleeping for a fixed time after navigation or an action that updates the page. Animations
+     * and updates not driven by Ajax are not detected.
+     */
+    @Override
+    public void waitForPageReady() {
+        waitFor(this).withMessage("Page %s to be ready", driver.getCurrentUrl())
+                .pollingEvery(PAGE_QUIET_PERIOD, TimeUnit.MILLISECONDS)
+                .withTimeout(30, TimeUnit.SECONDS)
+                .ignoring(StaleElementReferenceException.class)
+                .until(new Callable<Boolean>() {
+                    @Override public Boolean call() {
+                        try {
+                            return Boolean.TRUE.equals(executeScript(PAGE_READY_JS, PAGE_QUIET_PERIOD));
+                        } catch (WebDriverException ex) {
+                            if (isPageBeingReplaced(ex)) return false;
+                            throw ex;
+                        }
+                    }
+        });
+    }
+
+    /**
+     * Script failed as the page was unloaded while it was running.
+     *
+     * Selenium 2 reports this as plain {@link WebDriverException}, so it is recognized by the message browsers use.
+     */
+    private static boolean isPageBeingReplaced(WebDriverException ex) {
+        return PAGE_UNLOADED.matcher(String.valueOf(ex.getMessage())).find();
+    }
+
     /**
      * Returns the first visible element that matches the selector.
      *
@@ -201,13 +262,20 @@ public class CapybaraPortingLayerImpl implements CapybaraPortingLayer {
      */
     @Override
     public WebElement find(final By selector) {
+        return findAny(asList(selector));
+    }
+
+    /**
+     * Returns the first visible element that matches the first of the selectors that has one.
+     *
+     * @throws org.openqa.selenium.NoSuchElementException if the element is not found.
+     */
+    protected WebElement findAny(final List<By> selectors) {
+        final Object selector = selectors.size() == 1 ? selectors.get(0) : selectors;
         try {
             return waitFor().withTimeout(time.seconds(1), TimeUnit.MILLISECONDS).until(new Callable<WebElement>() {
                 @Override public WebElement call() throws Exception {
-                    for (WebElement element : driver.findElements(selector)) {
-                        if (isDisplayed(element)) return element;
-                    }
-                    return null;
+                    return finder.findVisible(selectors);
                 }
 
                 @Override public String toString() {
@@ -240,17 +308,6 @@ public class CapybaraPortingLayerImpl implements CapybaraPortingLayer {
         }
     }
 
-    /**
-     * Consider stale elements not displayed.
-     */
-    private boolean isDisplayed(WebElement e) {
-        try {
-            return e.isDisplayed();
-        } catch (StaleElementReferenceException _) {
-            return false;
-        }
-    }
-
     /**
      * Works like {@link #find(org.openqa.selenium.By)} but instead of throwing an exception,
      * this method returns null.
@@ -349,12 +406,21 @@ public class CapybaraPortingLayerImpl implements CapybaraPortingLayer {
      * Picks up the last visible element that matches given selector.
      */
     @Override
-    public WebElement lastIfNotVisible(By selector) {
-        findIfNotVisible(selector); // wait until at least one is found
+    public WebElement lastIfNotVisible(final By selector) {
+        try {
+            return waitFor().withTimeout(time.seconds(1), TimeUnit.MILLISECONDS).until(new Callable<WebElement>() {
+                @Override public WebElement call() throws Exception {
+                    return finder.findLast(selector);
+                }
 
-        // but what we want is the last one
-        List<WebElement> l = driver.findElements(selector);
-        return l.get(l.size() - 1);
+                @Override public String toString() {
+                    return "Wait for the element (" + selector + ") to be present";
+                }
+            });
+        } catch (NoSuchElementException|TimeoutException x) {
+            String msg = String.format("Unable to locate %s in %s", selector, driver.getCurrentUrl());
+            throw new NoSuchElementException(msg, x);
+        }
     }
 
     /**
@@ -365,6 +431,16 @@ public class CapybaraPortingLayerImpl implements CapybaraPortingLayer {
         return ((JavascriptExecutor) driver).executeScript(javaScript, args);
     }
 
+    @Override
+    public TableSnapshot snapshotTable(WebElement table) {
+        return new TableSnapshot(executeScript(TableSnapshot.SCRIPT, table));
+    }
+
+    @Override
+    public TableSnapshot snapshotTable(By selector) {
+        return snapshotTable(find(selector));
+    }
+
     /**
      * @param locator Text, ID, or link.
      */
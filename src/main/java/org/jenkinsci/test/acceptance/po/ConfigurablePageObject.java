@@ -103,7 +103,7 @@ public abstract class ConfigurablePageObject extends PageObject {
             return;
         }
         visit(getConfigUrl());
-        elasticSleep(1000); // configure page requires some time to load
+        waitForPageReady();
     }
 
     /**
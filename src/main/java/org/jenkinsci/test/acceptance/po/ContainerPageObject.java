@@ -1,15 +1,13 @@
 package org.jenkinsci.test.acceptance.po;
 
 import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang3.StringUtils;
-import org.jenkinsci.test.acceptance.utils.IOUtil;
+import org.jenkinsci.test.acceptance.utils.JsonApiClient;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
@@ -63,12 +61,9 @@ public abstract class ContainerPageObject extends ConfigurablePageObject {
                 url = new URL(url + "?" + queryString);
             }
 
-            // Pass in all the cookies (in particular the session cookie.)
+            // The client passes in all the cookies (in particular the session cookie.)
             // This ensures that the API call sees what the current user sees.
-            HttpURLConnection con = IOUtil.openConnection(url);
-            con.setRequestProperty("Cookie", StringUtils.join(driver.manage().getCookies(), ";"));
-
-            return jsonParser.readTree(con.getInputStream());
+            return injector.getInstance(JsonApiClient.class).getJson(url, driver);
         } catch (MalformedURLException e) {
             throw new Error(e);
         } catch (IOException e) {
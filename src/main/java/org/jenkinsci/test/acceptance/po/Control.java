@@ -1,5 +1,8 @@
 package org.jenkinsci.test.acceptance.po;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
 import org.jenkinsci.test.acceptance.junit.Resource;
 import org.openqa.selenium.*;
@@ -59,17 +62,17 @@ public class Control extends CapybaraPortingLayerImpl {
         };
     }
 
+    /**
+     * Find the element using the first of the paths it is present at.
+     */
     public WebElement resolve() {
-        NoSuchElementException problem = new NoSuchElementException("No relative path specified!");
+        if (relativePaths.length == 0) throw new NoSuchElementException("No relative path specified!");
+
+        List<By> selectors = new ArrayList<>(relativePaths.length);
         for (String p : relativePaths) {
-            try {
-                return find(parent.path(p));
-            }
-            catch (NoSuchElementException e) {
-                problem = e;
-            }
+            selectors.add(parent.path(p));
         }
-        throw problem;
+        return findAny(selectors);
     }
 
     public void sendKeys(String t) {
@@ -151,13 +154,13 @@ public class Control extends CapybaraPortingLayerImpl {
     public void selectDropdownMenu(Class type) {
         click();
         findCaption(type,findDropDownMenuItem).click();
-        elasticSleep(1000);
+        waitForPageReady();
     }
 
     public void selectDropdownMenu(String displayName) {
         click();
         findDropDownMenuItem.find(displayName).click();
-        elasticSleep(1000);
+        waitForPageReady();
     }
 
     /**
@@ -194,7 +197,7 @@ public class Control extends CapybaraPortingLayerImpl {
      */
     public void selectDropdownMenuAlt(Class type) {
         findCaption(type,findDropDownMenuItemBySelector);
-        elasticSleep(1000);
+        waitForPageReady();
     }
 
     private Finder<WebElement> findDropDownMenuItemBySelector = new Finder<WebElement>() {
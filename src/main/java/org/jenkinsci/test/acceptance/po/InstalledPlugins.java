@@ -0,0 +1,51 @@
+package org.jenkinsci.test.acceptance.po;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.test.acceptance.guice.TestScope;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import hudson.util.VersionNumber;
+
+/**
+ * Snapshot of plugins installed in Jenkins under test, read from the plugin manager JSON API in a single request.
+ *
+ * <p>
+ * The snapshot is kept for the duration of the test and refreshed once plugins are installed or Jenkins restarted.
+ * Plugins that are disabled or failed to load are not considered installed, as tests can not use them.
+ *
+ * @see PluginManager#installationStatus(java.util.Collection)
+ */
+@TestScope
+public class InstalledPlugins {
+    private volatile Map<String, VersionNumber> versions;
+
+    /**
+     * Versions of installed plugins by plugin name.
+     */
+    public @Nonnull Map<String, VersionNumber> get(@Nonnull PluginManager pm) {
+        Map<String, VersionNumber> v = versions;
+        if (v == null) {
+            v = new HashMap<>();
+            for (JsonNode plugin : pm.getJson("tree=plugins[shortName,version,active,enabled]").get("plugins")) {
+                if (!plugin.get("active").asBoolean() || !plugin.get("enabled").asBoolean()) continue;
+
+                v.put(plugin.get("shortName").asText(), new VersionNumber(plugin.get("version").asText()));
+            }
+            versions = v = Collections.unmodifiableMap(v);
+        }
+        return v;
+    }
+
+    /**
+     * Discard the snapshot as plugins might have changed.
+     */
+    public void invalidate() {
+        versions = null;
+    }
+}
@@ -10,6 +10,7 @@ import java.util.logging.Level;
 import org.apache.commons.io.IOUtils;
 import org.jenkinsci.test.acceptance.controller.JenkinsController;
 import org.jenkinsci.test.acceptance.utils.IOUtil;
+import org.jenkinsci.test.acceptance.utils.JsonApiClient;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 
@@ -148,6 +149,8 @@ public class Jenkins extends Node implements Container {
     public void restart() {
         visit("restart");
         clickButton("Yes");
+        injector.getInstance(InstalledPlugins.class).invalidate();
+        injector.getInstance(JsonApiClient.class).invalidate();
 
         // Poll until we have the real page
         waitFor(driver).withTimeout(JenkinsController.STARTUP_TIMEOUT, TimeUnit.SECONDS)
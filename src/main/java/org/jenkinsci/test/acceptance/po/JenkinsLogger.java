@@ -1,5 +1,7 @@
 package org.jenkinsci.test.acceptance.po;
 
+import org.jenkinsci.test.acceptance.junit.Wait;
+import org.jenkinsci.test.acceptance.log.TestLog;
 import org.openqa.selenium.WebElement;
 
 import java.util.Map;
@@ -10,6 +12,12 @@ import java.util.logging.Level;
 import java.util.regex.Pattern;
 
 /**
+ * Log recorder in Jenkins.
+ *
+ * <p>
+ * Queries of the <tt>all</tt> logger are answered from the Jenkins log streamed to the harness, when available,
+ * as it contains the same records without the need to visit the page repeatedly.
+ *
  * @author Kohsuke Kawaguchi
  */
 public class JenkinsLogger extends PageObject {
@@ -29,7 +37,7 @@ public class JenkinsLogger extends PageObject {
 
         for (Entry<String, Level> e : levels.entrySet()) {
             j.clickButton("Add");
-            j.elasticSleep(1000);
+            j.waitForPageReady();
             j.last(by.input("_.name")).sendKeys(e.getKey());
             WebElement o = j.last(by.input("level"))
                     .findElement(by.option(e.getValue().getName()));
@@ -45,6 +53,11 @@ public class JenkinsLogger extends PageObject {
     }
 
     public boolean hasLogged(Pattern pattern) {
+        TestLog log = getTestLog();
+        if (log != null) {
+            return log.hasRecord(pattern);
+        }
+
         open();
         for (WebElement e : all(by.css("#main-panel pre"))) {
             if (pattern.matcher(e.getText()).matches()) return true;
@@ -58,6 +71,20 @@ public class JenkinsLogger extends PageObject {
     }
 
     public void waitForLogged(final Pattern pattern, final int timeout) {
+        final TestLog log = getTestLog();
+        if (log != null) {
+            new Wait<>(this, time, log.newSleeper())
+                    .pollingEvery(500, TimeUnit.MILLISECONDS)
+                    .withMessage("%s to be logged", pattern)
+                    .withTimeout(timeout, TimeUnit.SECONDS)
+                    .until(new Callable<Boolean>() {
+                        @Override public Boolean call() throws Exception {
+                            return log.hasRecord(pattern);
+                        }
+            });
+            return;
+        }
+
         waitFor().withMessage("%s to be logged", pattern)
                 .withTimeout(timeout, TimeUnit.SECONDS)
                 .until(new Callable<Boolean>() {
@@ -66,4 +93,14 @@ public class JenkinsLogger extends PageObject {
                     }
         });
     }
+
+    /**
+     * Log of the current test if it can be used instead of this logger.
+     */
+    private TestLog getTestLog() {
+        if (!"all".equals(name)) return null;
+
+        TestLog log = injector.getInstance(TestLog.class);
+        return log.isAvailable() ? log : null;
+    }
 }
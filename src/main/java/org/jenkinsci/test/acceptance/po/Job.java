@@ -355,8 +355,6 @@ public class Job extends TopLevelItem {
 //        find(xpath("//button[text()='Add Parameter']")).click();
 //        find(xpath("//a[text()='%s']",displayName)).click();
 
-        elasticSleep(500);
-
         // 1.636-: …/parameter (or …/parameter[1] etc.); 1.637+: …/parameterDefinitions
         String path = last(by.xpath("//div[starts-with(@path,'/properties/hudson-model-ParametersDefinitionProperty/parameter')]")).getAttribute("path");
 
@@ -1,8 +1,20 @@
 package org.jenkinsci.test.acceptance.po;
 
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.jenkinsci.test.acceptance.utils.JsonApiClient;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 
@@ -62,6 +74,84 @@ public class JobsMixIn extends MixIn {
         return j;
     }
 
+    /**
+     * Create items posting their <tt>config.xml</tt> to Jenkins, without going through the UI.
+     *
+     * Items are created in parallel from the configuration {@linkplain TopLevelItem#configXml() rendered by their
+     * page objects}. Tests exercising item creation itself should use {@link #create(Class, String)} instead.
+     *
+     * @return Created items, in the order of names.
+     */
+    public <T extends TopLevelItem> List<T> provision(Class<T> type, String... names) {
+        Map<String, String> configs = new LinkedHashMap<>();
+        for (String name : names) {
+            if (configs.put(name, get(type, name).configXml()) != null) {
+                throw new IllegalArgumentException("Duplicate item name " + name);
+            }
+        }
+        return provision(type, configs);
+    }
+
+    /**
+     * Create items with random names posting their <tt>config.xml</tt> to Jenkins.
+     *
+     * @see #provision(Class, String...)
+     */
+    public <T extends TopLevelItem> List<T> provision(Class<T> type, int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = createRandomName();
+        }
+        return provision(type, names);
+    }
+
+    /**
+     * Create items of the same configuration posting it to Jenkins.
+     *
+     * @param configXml Item configuration, as read from <tt>config.xml</tt> of an existing item.
+     * @return Created items, in the order of names.
+     */
+    public <T extends TopLevelItem> List<T> provision(Class<T> type, String configXml, List<String> names) {
+        Map<String, String> configs = new LinkedHashMap<>();
+        for (String name : names) {
+            if (configs.put(name, configXml) != null) {
+                throw new IllegalArgumentException("Duplicate item name " + name);
+            }
+        }
+        return provision(type, configs);
+    }
+
+    private <T extends TopLevelItem> List<T> provision(Class<T> type, Map<String, String> configs) {
+        Map<String, StringEntity> requests = new LinkedHashMap<>();
+        for (Map.Entry<String, String> config : configs.entrySet()) {
+            requests.put(
+                    url("createItem?name=%s", encode(config.getKey())).toExternalForm(),
+                    new StringEntity(config.getValue(), ContentType.create("application/xml", StandardCharsets.UTF_8))
+            );
+        }
+
+        try {
+            injector.getInstance(JsonApiClient.class).postAll(getJenkins().url, requests, driver);
+        } catch (IOException e) {
+            throw new AssertionError("Failed to create items " + configs.keySet(), e);
+        }
+
+        // Items are saved and registered once createItem responds
+        List<T> items = new ArrayList<>(configs.size());
+        for (String name : configs.keySet()) {
+            items.add(get(type, name));
+        }
+        return items;
+    }
+
+    private static String encode(String name) {
+        try {
+            return URLEncoder.encode(name, "UTF-8").replace("+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     public <T extends TopLevelItem> T get(Class<T> type, String name) {
         if (contextAvailable() && typeAcceptsContext(type)) {
             return newInstance(type, getContext(), url("job/%s/", name), name);
@@ -24,9 +24,20 @@
 package org.jenkinsci.test.acceptance.po;
 
 import com.google.inject.Injector;
-import org.openqa.selenium.NoSuchElementException;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.message.BasicNameValuePair;
+import org.jenkinsci.test.acceptance.utils.JsonApiClient;
 
+import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 /**
  * Common base for Jenkins and Slave.
@@ -61,25 +72,78 @@ public abstract class Node extends ContainerPageObject {
     /**
      * Run groovy string in groovy console.
      *
+     * The script is posted to <tt>scriptText</tt> so the browser stays where it is.
+     *
      * @param script Script text to run.
      * @param args Arguments to String#format in the script.
      * @return String output of the script or null if there is none.
      */
     public String runScript(String script, Object... args) {
-        visit("script");
-        CodeMirror cm = new CodeMirror(this, "/script");
-        cm.set(String.format(script, args));
-        clickButton("Run");
+        return output(postScript(String.format(script, args)));
+    }
+
+    /**
+     * Run several groovy scripts in a single request.
+     *
+     * Scripts are evaluated in order, each with its own binding, the way groovy console would evaluate them.
+     *
+     * @return String output of every script, null where there is none.
+     */
+    public List<String> runScripts(String... scripts) {
+        String separator = "-----" + UUID.randomUUID() + "-----";
+        StringBuilder batch = new StringBuilder(
+                "import org.codehaus.groovy.control.CompilerConfiguration\n" +
+                "import org.codehaus.groovy.control.customizers.ImportCustomizer\n" +
+                "def config = new CompilerConfiguration()\n" +
+                "config.addCompilationCustomizers(new ImportCustomizer().addStarImports('jenkins', 'jenkins.model', 'hudson', 'hudson.model'))\n" +
+                "def loader = Jenkins.instance.pluginManager.uberClassLoader\n" +
+                "["
+        );
+        for (int i = 0; i < scripts.length; i++) {
+            if (i > 0) batch.append(", ");
+            batch.append('\'').append(Base64.getEncoder().encodeToString(scripts[i].getBytes(StandardCharsets.UTF_8))).append('\'');
+        }
+        batch.append("].each { encoded ->\n" +
+                "  def binding = new Binding()\n" +
+                "  binding.setVariable('out', out)\n" +
+                "  try {\n" +
+                "    def result = new GroovyShell(loader, binding, config).evaluate(new String(encoded.decodeBase64(), 'UTF-8'))\n" +
+                "    if (result != null) println 'Result: ' + result\n" +
+                "  } catch (Throwable t) {\n" +
+                "    t.printStackTrace(out)\n" +
+                "  }\n" +
+                "  println '").append(separator).append("'\n" +
+                "}\n"
+        );
 
-        find(by.xpath("//h2[text() = 'Result']")); // Ensure we are looking at the page with completed script
+        String[] chunks = postScript(batch.toString()).split("(?m)^" + Pattern.quote(separator) + "\\r?$\\n?", -1);
+        List<String> outputs = new ArrayList<>(scripts.length);
+        for (int i = 0; i < scripts.length; i++) {
+            outputs.add(i < chunks.length ? output(chunks[i]) : null);
+        }
+        return outputs;
+    }
+
+    private String postScript(String script) {
+        List<NameValuePair> params = Collections.<NameValuePair>singletonList(new BasicNameValuePair("script", script));
+        URL scriptText = url("scriptText");
         try {
-            return find(by.css("h2 + pre")).getText().replaceAll("^Result: ", "");
-        } catch (NoSuchElementException ex) {
-            // Pre element does not exists if there is nothing returned.
-            return null;
+            return injector.getInstance(JsonApiClient.class).post(
+                    getJenkins().url, scriptText.toExternalForm(), new UrlEncodedFormEntity(params, StandardCharsets.UTF_8), driver
+            );
+        } catch (IOException e) {
+            throw new AssertionError("Failed to run script at " + scriptText, e);
         }
     }
 
+    /**
+     * Format the output the same way as the groovy console page presents it.
+     */
+    private static String output(String text) {
+        String output = text.trim();
+        return output.isEmpty() ? null : output.replaceAll("^Result: ", "");
+    }
+
     public BuildHistory getBuildHistory() {
         return new BuildHistory(this);
     }
@@ -6,7 +6,10 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -32,10 +35,13 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpPost;
 import static org.apache.http.entity.ContentType.APPLICATION_OCTET_STREAM;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.jenkinsci.test.acceptance.update_center.MockUpdateCenter;
+import org.jenkinsci.test.acceptance.utils.JsonApiClient;
 
 
 /**
@@ -72,6 +78,15 @@ public class PluginManager extends ContainerPageObject {
     @Named("forceRestartAfterPluginInstallation")
     public boolean forceRestart;
 
+    /**
+     * Optional configuration value that selects whether to install plugins by posting them all at once to
+     * <tt>pluginManager/installNecessaryPlugins</tt> instead of ticking them in the UI. Installation progress is
+     * read from the update center JSON API.
+     */
+    @Inject(optional = true)
+    @Named("installPluginsViaRest")
+    public boolean installPluginsViaRest;
+
     @Inject
     public MockUpdateCenter mockUpdateCenter;
 
@@ -124,23 +139,39 @@ public class PluginManager extends ContainerPageObject {
      * @return whether the plugin (in version greater or equal than specified) is installed
      */
     public InstallationStatus installationStatus(PluginSpec spec) {
-        String name = spec.getName();
-        String version = spec.getVersion();
-        Plugin plugin;
-        try {
-            plugin = jenkins.getPlugin(name);
-            if (version != null) {
-                VersionNumber actualVersion = plugin.getVersion();
-                // check if installed version >= required version
-                if (actualVersion.compareTo(new VersionNumber(version)) < 0) {
-                    LOGGER.info(name + " has version " + actualVersion + " but " + version + " was requested");
-                    return InstallationStatus.OUTDATED;
-                }
+        return installationStatus(Collections.singleton(spec)).get(spec.getName());
+    }
+
+    /**
+     * Determine installation status of all the plugins at once.
+     *
+     * @return Status by plugin name.
+     */
+    public Map<String, InstallationStatus> installationStatus(Collection<PluginSpec> specs) {
+        Map<String, VersionNumber> installed = getInstalledPlugins();
+        Map<String, InstallationStatus> status = new LinkedHashMap<>();
+        for (PluginSpec spec : specs) {
+            String name = spec.getName();
+            VersionNumber actualVersion = installed.get(name);
+            if (actualVersion == null) {
+                status.put(name, InstallationStatus.NOT_INSTALLED);
+            } else if (spec.getVersion() != null && actualVersion.isOlderThan(spec.getVersionNumber())) {
+                LOGGER.info(name + " has version " + actualVersion + " but " + spec.getVersion() + " was requested");
+                status.put(name, InstallationStatus.OUTDATED);
+            } else {
+                status.put(name, InstallationStatus.UP_TO_DATE);
             }
-            return InstallationStatus.UP_TO_DATE;
-        } catch (IllegalArgumentException ex) {
-            return InstallationStatus.NOT_INSTALLED;
         }
+        return status;
+    }
+
+    /**
+     * Versions of installed plugins by plugin name, excluding plugins that are disabled or failed to load.
+     *
+     * The plugins are read once per test until they are installed or Jenkins restarted.
+     */
+    public Map<String, VersionNumber> getInstalledPlugins() {
+        return injector.getInstance(InstalledPlugins.class).get(this);
     }
 
     @Deprecated
@@ -158,8 +189,8 @@ public class PluginManager extends ContainerPageObject {
      * @return true, if plugin (in version greater or equal than specified) is installed
      */
     public boolean isInstalled(PluginSpec... specs) {
-        for (PluginSpec s : specs) {
-            if (installationStatus(s) != InstallationStatus.UP_TO_DATE) {
+        for (InstallationStatus status : installationStatus(Arrays.asList(specs)).values()) {
+            if (status != InstallationStatus.UP_TO_DATE) {
                 return false;
             }
         }
@@ -226,6 +257,9 @@ public class PluginManager extends ContainerPageObject {
                     }
                 }
             }
+        } else if (installPluginsViaRest) {
+            installPluginsViaRest(specs);
+            return false;
         } else {
             visit("available");
 
@@ -264,6 +298,34 @@ public class PluginManager extends ContainerPageObject {
         return false;
     }
 
+    /**
+     * Post the whole plugin set in one request and wait for the installation using the JSON API.
+     */
+    private void installPluginsViaRest(PluginSpec... specs) throws IOException {
+        StringBuilder xml = new StringBuilder("<jenkins>");
+        boolean someChangeRequired = false;
+        for (PluginSpec spec : specs) {
+            if (installationStatus(spec) == InstallationStatus.UP_TO_DATE) continue;
+
+            // Only plugins that are not installed or older than the version requested are deployed
+            xml.append("<install plugin='").append(spec.getName()).append('@')
+                    .append(spec.getVersion() == null ? "0" : spec.getVersion()).append("'/>");
+            someChangeRequired = true;
+        }
+        xml.append("</jenkins>");
+        if (!someChangeRequired) return;
+
+        UpdateCenter uc = new UpdateCenter(jenkins);
+        int lastJobId = uc.getLastJobId();
+        injector.getInstance(JsonApiClient.class).post(
+                jenkins.url, "pluginManager/installNecessaryPlugins",
+                new StringEntity(xml.toString(), ContentType.APPLICATION_XML), driver
+        );
+
+        // Jenkins will be restarted if necessary
+        uc.waitForInstallationToComplete(lastJobId, specs);
+    }
+
     private void tickPluginToInstall(PluginSpec spec) {
         String name = spec.getName();
         check(find(by.xpath("//input[starts-with(@name,'plugin.%s.')]", name)));
@@ -300,6 +362,7 @@ public class PluginManager extends ContainerPageObject {
         post.setEntity(e);
 
         HttpResponse response = httpclient.execute(post);
+        injector.getInstance(InstalledPlugins.class).invalidate();
         if (response.getStatusLine().getStatusCode() >= 400) {
             throw new IOException("Failed to upload plugin: " + response.getStatusLine() + "\n" +
                     IOUtils.toString(response.getEntity().getContent()));
@@ -331,5 +394,6 @@ public class PluginManager extends ContainerPageObject {
     public void enablePlugin(String pluginName, boolean state) {
         visit("installed");
         check(find(by.url("plugin/" + pluginName)), state);
+        injector.getInstance(InstalledPlugins.class).invalidate();
     }
 }
@@ -0,0 +1,151 @@
+package org.jenkinsci.test.acceptance.po;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.openqa.selenium.WebElement;
+
+/**
+ * Content of HTML table read at once.
+ *
+ * <p>
+ * Reading table cell by cell costs a round trip to the browser for every row and cell. The snapshot is read by
+ * a single script instead and holds text, link target and tooltip of every <tt>td</tt> of the rows in table body.
+ *
+ * @see CapybaraPortingLayer#snapshotTable(WebElement)
+ */
+public class TableSnapshot {
+    /**
+     * Collects <tt>[text, href, tooltip]</tt> of every cell of immediate body rows of the table passed as argument.
+     */
+    /*package*/ static final String SCRIPT =
+            "var rows = [];" +
+            "var bodies = arguments[0].tBodies;" +
+            "for (var b = 0; b < bodies.length; b++) {" +
+            "    for (var r = 0; r < bodies[b].rows.length; r++) {" +
+            "        var cells = [];" +
+            "        var children = bodies[b].rows[r].children;" +
+            "        for (var c = 0; c < children.length; c++) {" +
+            "            var td = children[c];" +
+            "            if (td.tagName !== 'TD') continue;" +
+            "            var a = td.querySelector('a[href]');" +
+            "            var tip = td.querySelector('[tooltip],[title]') || td;" +
+            "            cells.push([" +
+            "                td.innerText !== undefined ? td.innerText : td.textContent," +
+            "                a ? a.getAttribute('href') : null," +
+            "                tip.getAttribute('tooltip') || tip.getAttribute('title')" +
+            "            ]);" +
+            "        }" +
+            "        rows.push(cells);" +
+            "    }" +
+            "}" +
+            "return rows;"
+    ;
+
+    private final List<Row> rows;
+
+    /*package*/ TableSnapshot(Object raw) {
+        List<Row> rows = new ArrayList<>();
+        for (Object row : (List<?>) raw) {
+            List<Cell> cells = new ArrayList<>();
+            for (Object cell : (List<?>) row) {
+                List<?> values = (List<?>) cell;
+                cells.add(new Cell((String) values.get(0), (String) values.get(1), (String) values.get(2)));
+            }
+            rows.add(new Row(cells));
+        }
+        this.rows = Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * Rows of all table bodies, including header and footer rows if the table has them in body.
+     */
+    public @Nonnull List<Row> getRows() {
+        return rows;
+    }
+
+    /**
+     * All cells of the table, row by row.
+     */
+    public @Nonnull List<Cell> getCells() {
+        List<Cell> cells = new ArrayList<>();
+        for (Row row : rows) {
+            cells.addAll(row.getCells());
+        }
+        return cells;
+    }
+
+    public static class Row {
+        private final List<Cell> cells;
+
+        private Row(List<Cell> cells) {
+            this.cells = Collections.unmodifiableList(cells);
+        }
+
+        public @Nonnull List<Cell> getCells() {
+            return cells;
+        }
+
+        public @Nonnull Cell getCell(int index) {
+            return cells.get(index);
+        }
+
+        /**
+         * Trimmed text of all cells.
+         */
+        public @Nonnull List<String> getTexts() {
+            List<String> texts = new ArrayList<>(cells.size());
+            for (Cell cell : cells) {
+                texts.add(cell.getText());
+            }
+            return texts;
+        }
+
+        @Override
+        public String toString() {
+            return getTexts().toString();
+        }
+    }
+
+    public static class Cell {
+        private final String text;
+        private final String href;
+        private final String tooltip;
+
+        private Cell(String text, String href, String tooltip) {
+            this.text = text == null ? "" : text.trim();
+            this.href = href;
+            this.tooltip = tooltip;
+        }
+
+        /**
+         * Trimmed text of the cell.
+         */
+        public @Nonnull String getText() {
+            return text;
+        }
+
+        /**
+         * Target of the first link in the cell.
+         */
+        public @CheckForNull String getHref() {
+            return href;
+        }
+
+        /**
+         * Tooltip of the cell or its first descendant that has one.
+         */
+        public @CheckForNull String getTooltip() {
+            return tooltip;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
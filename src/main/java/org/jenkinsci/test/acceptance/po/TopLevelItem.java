@@ -34,6 +34,25 @@ public abstract class TopLevelItem extends ContainerPageObject {
         this.name = name;
     }
 
+    /**
+     * Configuration to create the item with when {@linkplain JobsMixIn#provision(Class, String...) provisioned}
+     * without going through the UI.
+     *
+     * Everything is left at defaults, the root element being the Jenkins class named by {@link Describable}.
+     * Subclasses can render more specific configuration.
+     */
+    public String configXml() {
+        for (Class<?> c = getClass(); c != null; c = c.getSuperclass()) {
+            Describable describable = c.getAnnotation(Describable.class);
+            if (describable != null) {
+                return "<?xml version='1.0' encoding='UTF-8'?>\n<" + describable.value()[0] + "/>";
+            }
+        }
+        throw new IllegalStateException(
+                getClass().getName() + " is not annotated with @Describable, unable to render its config.xml"
+        );
+    }
+
     /**
      * Renames the job. Opens the configuration section, sets the name and saves the form. Finally the rename is
      * confirmed.
@@ -6,6 +6,13 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.jenkinsci.test.acceptance.Matchers;
 import org.jenkinsci.test.acceptance.update_center.PluginSpec;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
 import static java.util.Arrays.*;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assume.assumeTrue;
@@ -78,6 +85,68 @@ public class UpdateCenter extends ContainerPageObject {
         // in case update of plugin dependency is needed (and is in fact performed in sibling UC job). Restart should fix that.
         boolean restartRequired = uc.contains("restarted") || uc.contains("Failure");
 
+        return finishInstallation(restartRequired, Collections.<String>emptyList(), specs);
+    }
+
+    /**
+     * Get the id of the last update center job, or -1 if there is none.
+     */
+    public int getLastJobId() {
+        int last = -1;
+        for (JsonNode job : getJson("tree=jobs[id]").get("jobs")) {
+            last = Math.max(last, job.get("id").asInt());
+        }
+        return last;
+    }
+
+    /**
+     * Wait for the plugin installation is done without the UI.
+     *
+     * Same as {@link #waitForInstallationToComplete(PluginSpec...)}, only the progress is read from the JSON API.
+     * Restart is decided once for all the plugin jobs scheduled after the given job.
+     *
+     * @param lastJobId Id of the last job scheduled before the installation started.
+     * @return true if Jenkins ware restarted to install plugins.
+     * @throws InstallationFailedException If the installation has failed.
+     */
+    public boolean waitForInstallationToComplete(final int lastJobId, final PluginSpec... specs) throws InstallationFailedException {
+        final boolean[] restartRequired = new boolean[1];
+        final List<String> failures = new ArrayList<>();
+        waitFor(this).withMessage("Plugin installation to complete")
+                .withTimeout(300, TimeUnit.SECONDS)
+                .until(new Callable<Boolean>() {
+                    @Override public Boolean call() throws Exception {
+                        boolean restart = false;
+                        failures.clear();
+                        for (JsonNode job : getJson("tree=jobs[id,plugin[name],errorMessage,status[type]]").get("jobs")) {
+                            if (job.get("id").asInt() <= lastJobId || job.get("plugin") == null) continue;
+
+                            String type = job.get("status").get("type").asText();
+                            if ("Pending".equals(type) || "Installing".equals(type)) return false;
+
+                            if ("Failure".equals(type)) {
+                                JsonNode errorMessage = job.get("errorMessage");
+                                failures.add(job.get("plugin").get("name").asText() + ": "
+                                        + (errorMessage == null || errorMessage.isNull() ? "failed, see log" : errorMessage.asText()));
+                            }
+
+                            // "IOException: Failed to dynamically deploy this plugin" can be reported in case update
+                            // of plugin dependency is needed. Restart should fix that.
+                            restart |= "SuccessButRequiresRestart".equals(type) || "Failure".equals(type);
+                        }
+                        restartRequired[0] = restart;
+                        return true;
+                    }
+                })
+        ;
+
+        return finishInstallation(restartRequired[0], failures, specs);
+    }
+
+    /**
+     * @param failures Errors reported by the failed update center jobs, to explain why plugins are not installed.
+     */
+    private boolean finishInstallation(boolean restartRequired, List<String> failures, PluginSpec... specs) throws InstallationFailedException {
         Jenkins jenkins = getJenkins();
         if (restartRequired) {
             assumeTrue("This test requires a restartable Jenkins", jenkins.canRestart());
@@ -85,16 +154,20 @@ public class UpdateCenter extends ContainerPageObject {
             jenkins.restart();
         }
 
+        PluginManager pm = jenkins.getPluginManager();
+        injector.getInstance(InstalledPlugins.class).invalidate();
+        Map<String, PluginManager.InstallationStatus> status = pm.installationStatus(asList(specs));
+        String details = failures.isEmpty() ? "" : "\nFailed update center jobs:\n" + String.join("\n", failures);
         for (PluginSpec spec : specs) {
-            Plugin plugin = jenkins.getPlugin(spec.getName());
-            if (plugin == null) {
-                throw new InstallationFailedException("Plugin " + spec.getName() + " not installed, restarted " + restartRequired);
-            }
-
-            if (spec.getVersionNumber() != null && plugin.getVersion().isOlderThan(spec.getVersionNumber())) {
-                throw new InstallationFailedException(
-                        "Plugin " + spec + " not installed in required version, is " + plugin.getVersion() + ", restarted " + true
-                );
+            switch (status.get(spec.getName())) {
+                case NOT_INSTALLED:
+                    throw new InstallationFailedException("Plugin " + spec.getName() + " not installed, restarted " + restartRequired + details);
+                case OUTDATED:
+                    throw new InstallationFailedException(
+                            "Plugin " + spec + " not installed in required version, is " + pm.getInstalledPlugins().get(spec.getName()) + ", restarted " + true + details
+                    );
+                default:
+                    // Installed
             }
         }
 
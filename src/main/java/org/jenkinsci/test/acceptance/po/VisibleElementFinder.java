@@ -0,0 +1,142 @@
+package org.jenkinsci.test.acceptance.po;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+
+import org.apache.commons.io.IOUtils;
+import org.jenkinsci.test.acceptance.ByFactory;
+import org.jenkinsci.test.acceptance.guice.AutoCleaned;
+import org.jenkinsci.test.acceptance.guice.TestScope;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Looks up elements evaluating selectors and element visibility in the browser, in a single round trip.
+ *
+ * <p>
+ * Finding the first visible element through WebDriver takes a request to get the candidates and another one for
+ * each of them to check its visibility. This matters on pages with many hidden copies of the same form fragment.
+ * Only CSS and XPath selectors created by {@link ByFactory} are evaluated by the script, other selectors or those the
+ * browser fails to evaluate are resolved through WebDriver.
+ */
+@TestScope
+public class VisibleElementFinder implements AutoCleaned {
+    private static final String SCRIPT;
+    static {
+        try {
+            SCRIPT = IOUtils.toString(VisibleElementFinder.class.getResourceAsStream("find-visible.js"));
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Inject
+    private WebDriver driver;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong totalTime = new AtomicLong();
+
+    /**
+     * First visible element matching the first selector that has one.
+     *
+     * @return null if there is no such element.
+     */
+    public @CheckForNull WebElement findVisible(@Nonnull List<By> selectors) {
+        return lookup(selectors, false);
+    }
+
+    /**
+     * Last element matching the selector, visible or not.
+     *
+     * @return null if there is no such element.
+     */
+    public @CheckForNull WebElement findLast(@Nonnull By selector) {
+        return lookup(Arrays.asList(selector), true);
+    }
+
+    private WebElement lookup(List<By> selectors, boolean last) {
+        long start = System.currentTimeMillis();
+        try {
+            List<List<String>> queries = queries(selectors);
+            if (queries != null) {
+                try {
+                    return (WebElement) ((JavascriptExecutor) driver).executeScript(SCRIPT, queries, last);
+                } catch (WebDriverException ex) {
+                    LOGGER.log(Level.FINE, "Unable to evaluate " + selectors + " by script, using WebDriver", ex);
+                }
+            }
+
+            fallbacks.incrementAndGet();
+            for (By selector : selectors) {
+                List<WebElement> all = driver.findElements(selector);
+                if (last) {
+                    if (!all.isEmpty()) return all.get(all.size() - 1);
+                    continue;
+                }
+                for (WebElement element : all) {
+                    if (isDisplayed(element)) return element;
+                }
+            }
+            return null;
+        } finally {
+            lookups.incrementAndGet();
+            totalTime.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Consider stale elements not displayed.
+     */
+    private static boolean isDisplayed(WebElement e) {
+        try {
+            return e.isDisplayed();
+        } catch (StaleElementReferenceException _) {
+            return false;
+        }
+    }
+
+    /**
+     * Selectors as kind and expression pairs for the script.
+     *
+     * @return null if some of the selectors can not be evaluated by the script.
+     */
+    private static List<List<String>> queries(List<By> selectors) {
+        List<List<String>> queries = new ArrayList<>(selectors.size());
+        for (By selector : selectors) {
+            if (selector instanceof ByFactory.XPath) {
+                queries.add(Arrays.asList("xpath", ((ByFactory.XPath) selector).getExpression()));
+            } else if (selector instanceof ByFactory.Css) {
+                queries.add(Arrays.asList("css", ((ByFactory.Css) selector).getExpression()));
+            } else {
+                return null;
+            }
+        }
+        return queries;
+    }
+
+    @Override
+    public void close() {
+        long count = lookups.get();
+        if (count == 0) return;
+
+        LOGGER.fine(String.format("Element lookups: %d (avg %dms), %d through WebDriver",
+                count, totalTime.get() / count, fallbacks.get()
+        ));
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(VisibleElementFinder.class.getName());
+}
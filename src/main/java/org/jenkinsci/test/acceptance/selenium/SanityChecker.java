@@ -23,9 +23,7 @@
  */
 package org.jenkinsci.test.acceptance.selenium;
 
-import java.util.List;
-
-import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.UnhandledAlertException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -34,12 +32,37 @@ import org.openqa.selenium.support.events.AbstractWebDriverEventListener;
 /**
  * Make sure there are no exceptions shown after user interaction.
  *
+ * <p>
+ * The page is inspected by a script running in the browser so only the verdict is transferred over the wire. The
+ * verdict is remembered in the document until its structure changes so repeated checks of the same page are cheap.
+ *
  * @author ogondza
  */
 public class SanityChecker extends AbstractWebDriverEventListener {
-    private final static By SPECIFIER = By.xpath(
-            "//h1/span[contains(., 'Oops!')]/../following-sibling::div/h2[text()='Stack trace']/following-sibling::pre"
-    );
+    /**
+     * Returns null when the page is sane, the error message otherwise.
+     */
+    private final static String PROBE =
+            "var verdict = window.__athSanity;" +
+            "if (verdict !== undefined) return verdict;" +
+            "verdict = null;" +
+            "var trace = document.evaluate(\"//h1/span[contains(., 'Oops!')]/../following-sibling::div/h2[text()='Stack trace']/following-sibling::pre\"," +
+            "        document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+            "if (trace) {" +
+            "    verdict = 'Jenkins error detected:\\n' + trace.textContent;" +
+            "} else if (document.querySelector(\"form > input[value='Try POSTing']\")) {" +
+            "    verdict = 'Post required at ' + window.location.href;" +
+            "}" +
+            "window.__athSanity = verdict;" +
+            "if (!window.__athSanityObserver && window.MutationObserver && document.documentElement) {" +
+            "    window.__athSanityObserver = new MutationObserver(function() { delete window.__athSanity; });" +
+            "    window.__athSanityObserver.observe(document.documentElement, { childList: true, subtree: true, characterData: true });" +
+            "}" +
+            "return verdict;"
+    ;
+
+    private long checks;
+    private long totalTime;
 
     @Override
     public void afterNavigateTo(String url, WebDriver driver) {
@@ -57,35 +80,33 @@ public class SanityChecker extends AbstractWebDriverEventListener {
     }
 
     private void checkSanity(WebDriver driver) {
-        if (isFastPath(driver)) return;
-
-        // Exception
-        List<WebElement> elements = driver.findElements(SPECIFIER);
-        if (!elements.isEmpty()) {
-            String trace = elements.get(0).getText();
-            throw new AssertionError("Jenkins error detected:\n" + trace);
+        long start = System.currentTimeMillis();
+        Object verdict;
+        try {
+            verdict = ((JavascriptExecutor) driver).executeScript(PROBE);
+        } catch (UnhandledAlertException ex) {
+            // If alert is expected we can not check sanity and should leave it alone for test to handle. If it is not
+            // expected, the code is likely going to fail anyway but it is better to do on less surprising place
+            return;
+        } finally {
+            checks++;
+            totalTime += System.currentTimeMillis() - start;
         }
 
-        // POST required
-        WebElement postForm = driver.findElement(By.cssSelector("form > input[value='Try POSTing']"));
-        if (postForm != null) throw new AssertionError("Post required at " + driver.getCurrentUrl());
+        if (verdict instanceof String) throw new AssertionError(verdict);
     }
 
     /**
-     * Quickly determine if the driver is definitely in the safe state.
-     *
-     * <p>
-     * The expectation is that the most of the time this would return true,
-     * and reduces the overhead of {@link SanityChecker}.
+     * Number of checks performed.
      */
-    private boolean isFastPath(WebDriver driver) {
-        try {
-            final String pageSource = driver.getPageSource();
-            return !(pageSource.contains("Oops!") || pageSource.contains("Try POSTing"));
-        } catch (UnhandledAlertException ex) {
-            // If alert is expected we can not check sanity and should leave it alone for test to handle. If it is not
-            // expected, the code is likely going to fail anyway but it is better to do on less surprising place
-            return true;
-        }
+    public long getCheckCount() {
+        return checks;
+    }
+
+    /**
+     * Time spent checking, in milliseconds.
+     */
+    public long getTotalTime() {
+        return totalTime;
     }
 }
@@ -0,0 +1,220 @@
+package org.jenkinsci.test.acceptance.selenium;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Keeps a number of pre-launched browsers around so that tests do not have to pay for the browser start-up.
+ *
+ * <p>
+ * Browsers are launched in the background by the factory passed in. When a test is done with the browser,
+ * it is {@linkplain #release(WebDriver) released} back to the pool, where its state (alerts, extra windows,
+ * cookies, web storage and window size) is reset. A browser that fails to reset is discarded and replaced
+ * by a freshly launched one.
+ *
+ * <p>
+ * Browsers launched by the pool, idle or in use, never outnumber its size for long: when the test can not wait for
+ * the background launch, the browser launched in its stead is discarded once released to a full pool.
+ *
+ * @see <tt>docs/BROWSER.md</tt>
+ */
+public class WebDriverPool {
+    /**
+     * How long to wait for the background launch before launching the browser in the calling thread.
+     */
+    private static final long LAUNCH_TIMEOUT = TimeUnit.MINUTES.toMillis(3);
+
+    private final int size;
+    private final Callable<WebDriver> factory;
+    private final Dimension windowSize;
+
+    private final BlockingQueue<WebDriver> idle = new LinkedBlockingQueue<>();
+    /**
+     * Number of launches submitted but not yet completed.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+    /**
+     * Browsers launched and not quit yet, by their main window handle.
+     */
+    private final Map<WebDriver, String> live = new ConcurrentHashMap<>();
+    private final ExecutorService launcher;
+    private volatile boolean closed;
+
+    /**
+     * @param size Number of browsers to keep warmed up.
+     * @param windowSize Minimal window size the browser is reset to between tests.
+     * @param factory Creates a new, fully configured browser.
+     */
+    public WebDriverPool(int size, @Nonnull Dimension windowSize, @Nonnull Callable<WebDriver> factory) {
+        if (size < 1) throw new IllegalArgumentException("Pool size must be positive: " + size);
+        this.size = size;
+        this.windowSize = windowSize;
+        this.factory = factory;
+        this.launcher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "WebDriver pool launcher");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        for (int i = 0; i < size; i++) {
+            launchInBackground();
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Obtain browser for exclusive use.
+     */
+    public WebDriver acquire() throws Exception {
+        WebDriver d = idle.poll();
+        if (d == null && pending.get() > 0) {
+            d = idle.poll(LAUNCH_TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+
+        if (d == null) {
+            // Background launch failed or is too slow. Try in this thread so the failure is reported to the test.
+            d = launch();
+        }
+        return d;
+    }
+
+    /**
+     * Return the browser to the pool once the test is done with it.
+     */
+    public void release(WebDriver d) {
+        if (closed) {
+            quit(d);
+            return;
+        }
+
+        if (live.size() > size) {
+            // Launched in place of a background launch that completed later
+            quit(d);
+        } else if (reset(d)) {
+            idle.add(d);
+        } else {
+            LOGGER.warning("Discarding browser that failed to reset: " + d);
+            quit(d);
+            launchInBackground();
+        }
+    }
+
+    /**
+     * Quit all idle browsers.
+     */
+    public void close() {
+        closed = true;
+        launcher.shutdownNow();
+        List<WebDriver> drivers = new ArrayList<>();
+        idle.drainTo(drivers);
+        for (WebDriver d : drivers) {
+            quit(d);
+        }
+    }
+
+    private WebDriver launch() throws Exception {
+        WebDriver d = factory.call();
+        live.put(d, d.getWindowHandle());
+        return d;
+    }
+
+    private void launchInBackground() {
+        pending.incrementAndGet();
+        launcher.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    WebDriver d = launch();
+                    if (closed || live.size() > size) {
+                        quit(d);
+                    } else {
+                        idle.add(d);
+                    }
+                } catch (Exception ex) {
+                    LOGGER.log(Level.WARNING, "Failed to launch pooled browser", ex);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * Bring the browser to the state equivalent to a freshly launched one.
+     *
+     * @return true if the browser is healthy and can be reused.
+     */
+    private boolean reset(WebDriver d) {
+        try {
+            try {
+                d.switchTo().alert().dismiss();
+            } catch (NoAlertPresentException ex) {
+                // Expected
+            }
+
+            String main = live.get(d);
+            Set<String> handles = d.getWindowHandles();
+            if (main == null || !handles.contains(main)) return false;
+            for (String handle : handles) {
+                if (handle.equals(main)) continue;
+                d.switchTo().window(handle).close();
+            }
+            d.switchTo().window(main);
+
+            // Cookies and storage are bound to the origin so they need to be cleaned before navigating away
+            d.manage().deleteAllCookies();
+            JavascriptExecutor js = (JavascriptExecutor) d;
+            js.executeScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+
+            d.get("about:blank");
+
+            Dimension size = d.manage().window().getSize();
+            if (size.height < windowSize.height || size.width < windowSize.width) {
+                d.manage().window().setSize(windowSize);
+            }
+
+            return "complete".equals(js.executeScript("return document.readyState"));
+        } catch (WebDriverException ex) {
+            LOGGER.log(Level.WARNING, "Failed to reset browser", ex);
+            return false;
+        }
+    }
+
+    private void quit(WebDriver d) {
+        live.remove(d);
+        try {
+            d.quit();
+        } catch (WebDriverException ex) {
+            LOGGER.log(Level.WARNING, "Browser died already", ex);
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(WebDriverPool.class.getName());
+}
@@ -25,12 +25,17 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Pre-launch {@link JenkinsController} so that tests can use them without waiting.
@@ -53,11 +58,30 @@ public class JenkinsControllerPoolProcess {
     @Inject
     TestLifecycle lifecycle;
 
+    /**
+     * Booted instances waiting for a client. Fair, so clients are served in the order they connected.
+     */
     private BlockingQueue<QueueItem> queue;
 
+    /**
+     * Instances that can be booted or be waiting in the {@link #queue}. Released when instance is handed out.
+     */
+    private Semaphore slots;
+
+    private final Stats stats = new Stats();
+
     @Option(name="-n",usage="Number of instances to pool. >=1.")
     public int n = Integer.getInteger("count",1);
 
+    @Option(name="-c",usage="Maximal number of instances booting concurrently. >=1.")
+    public int concurrency = Integer.getInteger("concurrency",1);
+
+    @Option(name="-max-load",usage="Postpone booting of next instance while system load average per CPU is above this value.")
+    public double maxLoad = Double.parseDouble(System.getProperty("maxLoad", "2.0"));
+
+    @Option(name="-min-free-memory",usage="Postpone booting of next instance while there is less free physical memory (in MB).")
+    public long minFreeMemory = Long.getLong("minFreeMemory", 1024);
+
     @Inject @Named("socket")
     public File socket;
 
@@ -78,43 +102,77 @@ public class JenkinsControllerPoolProcess {
     }
 
     public void run() throws Exception {
-        // there's always one process that's waiting to be in the queue,
-        // so the actual length of the queue has to be n-1.
-        if (n==1)
-            queue = new SynchronousQueue<>();
-        else
-            queue = new LinkedBlockingDeque<>(n-1);
+        queue = new ArrayBlockingQueue<>(n, true);
+        slots = new Semaphore(n);
 
         World w = World.get();
         w.getInjector().injectMembers(this);
 
-        new Thread() {
-            /**
-             * Just keeps on creating new controllers and put it into the queue.
-             * Because queue is blocking, this will only prelaunch up to 3.
-             */
-            @Override
-            public void run() {
-                try {
-                    FallbackConfig f = new FallbackConfig();
-                    while (true) {
-                        lifecycle.startTestScope();
-                        JenkinsController c = f.createController(injector,factories);
-                        c.start();
-                        queue.put(new QueueItem(c,lifecycle.export()));
+        for (int i = 0; i < Math.min(concurrency, n); i++) {
+            new Thread("Jenkins booter " + i) {
+                /**
+                 * Just keeps on creating new controllers and put it into the queue.
+                 * Because of {@link #slots}, this will only prelaunch up to n instances.
+                 */
+                @Override
+                public void run() {
+                    try {
+                        FallbackConfig f = new FallbackConfig();
+                        while (true) {
+                            slots.acquire();
+                            awaitHeadroom();
+
+                            stats.booting.incrementAndGet();
+                            long start = System.currentTimeMillis();
+                            try {
+                                lifecycle.startTestScope();
+                                JenkinsController c = f.createController(injector,factories);
+                                c.start();
+                                queue.put(new QueueItem(c,lifecycle.export()));
+                            } finally {
+                                stats.booting.decrementAndGet();
+                            }
+                            stats.booted(System.currentTimeMillis() - start);
+                        }
+                    } catch (Throwable e) {
+                        // fail fatally
+                        e.printStackTrace();
+                        System.exit(1);
                     }
-                } catch (Throwable e) {
-                    // fail fatally
-                    e.printStackTrace();
-                    System.exit(1);
                 }
-            }
-        }.start();
+            }.start();
+        }
 
         processServerSocket();
 
     }
 
+    /**
+     * Postpone the boot until the machine has enough CPU and memory to spare.
+     *
+     * <p>
+     * Booting is never postponed when there is no instance ready nor booting as clients would wait indefinitely.
+     */
+    private void awaitHeadroom() throws InterruptedException {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        boolean reported = false;
+        while (!queue.isEmpty() || stats.booting.get() > 0) {
+            double load = os.getSystemLoadAverage() / os.getAvailableProcessors();
+            long freeMemory = Long.MAX_VALUE;
+            if (os instanceof com.sun.management.OperatingSystemMXBean) {
+                freeMemory = ((com.sun.management.OperatingSystemMXBean) os).getFreePhysicalMemorySize() / (1024 * 1024);
+            }
+
+            if (load <= maxLoad && freeMemory >= minFreeMemory) return;
+
+            if (!reported) {
+                System.out.printf("Postponing boot: load per CPU %.2f (max %.2f), free memory %dMB (min %dMB)%n", load, maxLoad, freeMemory, minFreeMemory);
+                reported = true;
+            }
+            Thread.sleep(1000);
+        }
+    }
+
     /**
      * Accepts connection to Unix domain socket and hand it off to a connection handling thread.
      */
@@ -131,16 +189,30 @@ public class JenkinsControllerPoolProcess {
             while (true) {
                 final UnixSocketChannel c = channel.accept();
                 System.out.println("Accepted");
-                final QueueItem qi = queue.take();
-                final JenkinsController j = qi.controller;
-                System.out.println("Handed out "+j.getUrl());
 
                 new Thread("Connection handling thread") {
                     @Override
                     public void run() {
+                        final QueueItem qi;
+                        stats.waiting.incrementAndGet();
+                        long start = System.currentTimeMillis();
+                        try {
+                            qi = queue.take();
+                        } catch (InterruptedException e) {
+                            e.printStackTrace();
+                            return;
+                        } finally {
+                            stats.waiting.decrementAndGet();
+                        }
+                        slots.release();
+
+                        Stats snapshot = stats.snapshot(System.currentTimeMillis() - start, queue.size());
+                        final JenkinsController j = qi.controller;
+                        System.out.println("Handed out " + j.getUrl() + ": " + snapshot);
+
                         lifecycle.import_(qi.testScope);
                         try {
-                            processConnection(c, j);
+                            processConnection(c, j, snapshot);
                         } finally {
                             TestCleaner scope = injector.getInstance(TestCleaner.class);
                             if (scope!=null)
@@ -156,7 +228,7 @@ public class JenkinsControllerPoolProcess {
     /**
      * Serve individual connection to the test harness.
      */
-    private void processConnection(UnixSocketChannel c, JenkinsController j) {
+    private void processConnection(UnixSocketChannel c, JenkinsController j, Stats snapshot) {
         try {
             try {
                 try (
@@ -164,6 +236,7 @@ public class JenkinsControllerPoolProcess {
                     OutputStream out = ChannelStream.out(c)) {
 
                     Channel ch = new ChannelBuilder(j.getLogId(), executors).withMode(Mode.BINARY).build(in, out);
+                    ch.setProperty("stats", snapshot);
                     ch.setProperty("controller", ch.export(IJenkinsController.class,j));
 
                     // wait for the connection to be shut down
@@ -194,4 +267,59 @@ public class JenkinsControllerPoolProcess {
             this.testScope = testScope;
         }
     }
+
+    /**
+     * State of the pool reported to clients.
+     */
+    public static class Stats implements Serializable {
+        private final transient AtomicInteger booting = new AtomicInteger();
+        private final transient AtomicInteger waiting = new AtomicInteger();
+        private final transient AtomicLong bootCount = new AtomicLong();
+        private final transient AtomicLong bootTimeTotal = new AtomicLong();
+
+        private int bootingInstances;
+        private int waitingClients;
+        private int readyInstances;
+        private long averageBootTime;
+        private long leaseTime;
+
+        private void booted(long duration) {
+            bootCount.incrementAndGet();
+            bootTimeTotal.addAndGet(duration);
+        }
+
+        private Stats snapshot(long leaseTime, int ready) {
+            Stats s = new Stats();
+            s.bootingInstances = booting.get();
+            s.waitingClients = waiting.get();
+            s.readyInstances = ready;
+            long count = bootCount.get();
+            s.averageBootTime = count == 0 ? 0 : bootTimeTotal.get() / count;
+            s.leaseTime = leaseTime;
+            return s;
+        }
+
+        /**
+         * Time the client waited for the instance, in milliseconds.
+         */
+        public long getLeaseTime() {
+            return leaseTime;
+        }
+
+        /**
+         * Average time to boot the instance, in milliseconds.
+         */
+        public long getAverageBootTime() {
+            return averageBootTime;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("waited %dms, %d ready, %d booting, %d clients waiting, average boot %dms",
+                    leaseTime, readyInstances, bootingInstances, waitingClients, averageBootTime
+            );
+        }
+
+        private static final long serialVersionUID = 1L;
+    }
 }
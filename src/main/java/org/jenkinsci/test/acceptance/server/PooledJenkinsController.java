@@ -12,6 +12,7 @@ import org.jenkinsci.remoting.RoleChecker;
 import org.jenkinsci.test.acceptance.controller.IJenkinsController;
 import org.jenkinsci.test.acceptance.controller.JenkinsController;
 import org.jenkinsci.test.acceptance.controller.LocalController.LocalFactoryImpl;
+import org.jenkinsci.test.acceptance.log.LogIndex;
 import org.jenkinsci.test.acceptance.log.LogListenable;
 import org.jenkinsci.test.acceptance.log.LogListener;
 import org.jenkinsci.test.acceptance.log.LogSplitter;
@@ -37,6 +38,7 @@ public class PooledJenkinsController extends JenkinsController implements LogLis
     private final File socket;
     private UnixSocketChannel conn;
     private final LogSplitter splitter = new LogSplitter();
+    private final LogIndex logIndex = new LogIndex();
     private Channel channel;
     private IJenkinsController controller;
     private final List<byte[]> toUnpack = new LinkedList<>();
@@ -44,6 +46,7 @@ public class PooledJenkinsController extends JenkinsController implements LogLis
     public PooledJenkinsController(Injector i, File socket) {
         super(i);
         this.socket = socket;
+        splitter.addLogListener(logIndex);
     }
 
     @Override
@@ -56,6 +59,11 @@ public class PooledJenkinsController extends JenkinsController implements LogLis
         splitter.removeLogListener(l);
     }
 
+    @Override
+    public LogIndex getLogIndex() {
+        return logIndex;
+    }
+
     private boolean connect() throws IOException {
         if (conn != null)      return false;
 
@@ -69,6 +77,7 @@ public class PooledJenkinsController extends JenkinsController implements LogLis
 
         try {
             controller = (IJenkinsController)channel.waitForRemoteProperty("controller");
+            System.out.println("Leased jut instance: " + channel.getRemoteProperty("stats"));
             controller.start();
             url = controller.getUrl();
 
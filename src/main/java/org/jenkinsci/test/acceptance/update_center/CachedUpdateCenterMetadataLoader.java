@@ -4,6 +4,7 @@ import com.cloudbees.sdk.extensibility.ExtensionList;
 import com.google.inject.Inject;
 import org.apache.commons.io.FileUtils;
 import org.jenkinsci.test.acceptance.po.Jenkins;
+import hudson.util.VersionNumber;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -32,8 +33,13 @@ public class CachedUpdateCenterMetadataLoader implements UpdateCenterMetadataPro
 
     @Override
     public UpdateCenterMetadata get(Jenkins jenkins) throws IOException {
+        return get(jenkins.getVersion());
+    }
+
+    @Override
+    public synchronized UpdateCenterMetadata get(VersionNumber jenkinsVersion) throws IOException {
         if (metadata==null) {
-            String version = jenkins.getVersion().toString();
+            String version = jenkinsVersion.toString();
             File cache = new File(cacheBase + "-" + version + ".jsonp");
             if (!cache.exists() || System.currentTimeMillis()-cache.lastModified() > TimeUnit.DAYS.toMillis(1)) {
                 // load cache
@@ -43,7 +49,7 @@ public class CachedUpdateCenterMetadataLoader implements UpdateCenterMetadataPro
             } else {
                 System.err.println("Using cached " + cache);
             }
-            metadata = UpdateCenterMetadata.parse(cache);
+            metadata = UpdateCenterMetadataIndex.load(cache);
             for (UpdateCenterMetadataDecorator decorator : decorators) {
                 decorator.decorate(metadata);
             }
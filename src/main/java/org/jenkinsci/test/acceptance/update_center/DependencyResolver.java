@@ -0,0 +1,197 @@
+package org.jenkinsci.test.acceptance.update_center;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.test.acceptance.update_center.UpdateCenterMetadata.UnableToResolveDependencies;
+
+import hudson.util.VersionNumber;
+
+/**
+ * Computes plugins to install, including transitive dependencies, against single snapshot of installed plugins.
+ *
+ * <p>
+ * Plugins are ordered so dependencies precede their dependents. Versions of plugins required by several dependents
+ * are reconciled to the newest one required and all the problems found are reported at once. Dependencies of plugins
+ * are memoized by {@link UpdateCenterMetadata} so several plugin sets can be resolved, possibly concurrently and by
+ * different resolvers, at little cost.
+ */
+public class DependencyResolver {
+    private final UpdateCenterMetadata ucm;
+    private final VersionNumber jenkinsVersion;
+    private final Map<String, VersionNumber> installed;
+
+    /**
+     * @param installed Versions of plugins that are already installed, by name. Installed plugins are not included
+     *                  in the plan unless newer version is required.
+     */
+    public DependencyResolver(
+            @Nonnull UpdateCenterMetadata ucm, @Nonnull VersionNumber jenkinsVersion, @Nonnull Map<String, VersionNumber> installed
+    ) {
+        this.ucm = ucm;
+        this.jenkinsVersion = jenkinsVersion;
+        this.installed = installed;
+    }
+
+    /**
+     * Plugins to install in the order of installation.
+     */
+    public static final class Plan {
+        private final List<PluginMetadata> plugins;
+        private final List<String> problems;
+
+        private Plan(List<PluginMetadata> plugins, List<String> problems) {
+            this.plugins = Collections.unmodifiableList(plugins);
+            this.problems = Collections.unmodifiableList(problems);
+        }
+
+        /**
+         * @throws UnableToResolveDependencies When some of the plugins can not be installed.
+         */
+        public @Nonnull List<PluginMetadata> getPlugins() throws UnableToResolveDependencies {
+            if (!problems.isEmpty()) {
+                throw new UnableToResolveDependencies(String.join("\n", problems));
+            }
+            return plugins;
+        }
+
+        /**
+         * Reasons the plan can not be installed, empty if it can.
+         */
+        public @Nonnull List<String> getProblems() {
+            return problems;
+        }
+    }
+
+    /**
+     * Resolve several sets of plugins in parallel.
+     *
+     * @return Plans by the key of the plugin set.
+     */
+    public <K> Map<K, Plan> resolveAll(@Nonnull Map<K, ? extends Collection<PluginSpec>> sets) {
+        Map<K, Plan> plans = sets.entrySet().parallelStream().collect(Collectors.toMap(
+                Map.Entry::getKey, e -> resolve(e.getValue())
+        ));
+        Map<K, Plan> ordered = new LinkedHashMap<>();
+        for (K key : sets.keySet()) {
+            ordered.put(key, plans.get(key));
+        }
+        return ordered;
+    }
+
+    public @Nonnull Plan resolve(@Nonnull Collection<PluginSpec> specs) {
+        List<String> problems = new ArrayList<>();
+        Set<String> order = new LinkedHashSet<>();
+        Map<String, Set<String>> requiredBy = new HashMap<>();
+        Map<String, VersionNumber> requiredVersion = new HashMap<>();
+        Set<String> roots = new HashSet<>();
+
+        for (PluginSpec spec : specs) {
+            String name = spec.getName();
+            PluginMetadata p = ucm.plugins.get(name);
+            if (p == null) {
+                problems.add("No such plugin " + name);
+                continue;
+            }
+            if (p.requiredCore().isNewerThan(jenkinsVersion)) {
+                problems.add(String.format(
+                        "Unable to install %s plugin because of core dependency. Required: %s Used: %s",
+                        p, p.requiredCore(), jenkinsVersion
+                ));
+                continue;
+            }
+            roots.add(name);
+            require(name, spec.getVersionNumber(), "test", requiredBy, requiredVersion);
+            visit(p, order, new HashSet<>(), requiredBy, requiredVersion, problems);
+        }
+
+        List<PluginMetadata> plan = new ArrayList<>();
+        for (String name : order) {
+            PluginMetadata p = ucm.plugins.get(name);
+            VersionNumber required = requiredVersion.get(name);
+            VersionNumber current = installed.get(name);
+            if (!roots.contains(name) && current != null && (required == null || !current.isOlderThan(required))) {
+                continue; // Required by one plugin, but already satisfied
+            }
+
+            if (required != null && new VersionNumber(p.getVersion()).isOlderThan(required)) {
+                problems.add(String.format(
+                        "%s@%s required by %s but only %s available", name, required, requiredBy.get(name), p.getVersion()
+                ));
+                continue;
+            }
+            if (p.requiredCore().isNewerThan(jenkinsVersion)) {
+                // If latest version is too new for current Jenkins, use the declared one
+                if (required == null) {
+                    problems.add(String.format(
+                            "Unable to install %s plugin because of core dependency. Required: %s Used: %s",
+                            p, p.requiredCore(), jenkinsVersion
+                    ));
+                    continue;
+                }
+                p = p.withVersion(required.toString());
+            }
+            plan.add(p);
+        }
+
+        return new Plan(plan, problems);
+    }
+
+    /**
+     * Add the plugin after all its dependencies that are not installed in required version.
+     */
+    private void visit(
+            PluginMetadata p, Set<String> order, Set<String> visiting,
+            Map<String, Set<String>> requiredBy, Map<String, VersionNumber> requiredVersion, List<String> problems
+    ) {
+        String name = p.getName();
+        if (order.contains(name) || !visiting.add(name)) return;
+
+        for (Dependency d : ucm.mandatoryDependenciesOf(p)) {
+            VersionNumber version = d.version == null ? null : new VersionNumber(d.version);
+            require(d.name, version, name, requiredBy, requiredVersion);
+
+            VersionNumber current = installed.get(d.name);
+            if (current != null && (version == null || !current.isOlderThan(version))) continue;
+
+            PluginMetadata dep = ucm.plugins.get(d.name);
+            if (dep == null) {
+                problems.add(String.format("Unable to install dependency '%s' for '%s': plugin not found", d, p));
+                continue;
+            }
+            visit(dep, order, visiting, requiredBy, requiredVersion, problems);
+        }
+        order.add(name);
+    }
+
+    private static void require(
+            String name, @CheckForNull VersionNumber version, String by,
+            Map<String, Set<String>> requiredBy, Map<String, VersionNumber> requiredVersion
+    ) {
+        Set<String> dependents = requiredBy.get(name);
+        if (dependents == null) {
+            dependents = new LinkedHashSet<>();
+            requiredBy.put(name, dependents);
+        }
+        dependents.add(by);
+
+        if (version != null) {
+            VersionNumber existing = requiredVersion.get(name);
+            if (existing == null || existing.isOlderThan(version)) {
+                requiredVersion.put(name, version);
+            }
+        }
+    }
+}
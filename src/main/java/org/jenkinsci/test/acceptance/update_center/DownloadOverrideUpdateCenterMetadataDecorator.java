@@ -19,7 +19,7 @@ public class DownloadOverrideUpdateCenterMetadataDecorator implements UpdateCent
 
                 PluginMetadata original = ucm.plugins.get(name);
                 if (original == null) throw new IllegalArgumentException("Plugin does not exists in update center: " + name);
-                ucm.plugins.put(name, original.withVersion(version));
+                ucm.override(original.withVersion(version));
             }
         }
     }
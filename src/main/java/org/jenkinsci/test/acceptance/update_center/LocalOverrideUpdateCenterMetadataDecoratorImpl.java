@@ -9,7 +9,9 @@ import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -27,6 +29,7 @@ public class LocalOverrideUpdateCenterMetadataDecoratorImpl implements UpdateCen
             File userHome = new File(System.getProperty("user.home"));
             File localRepo = new File(new File(userHome, ".m2"), "repository");
             VersionScheme versionScheme = new GenericVersionScheme();
+            List<PluginMetadata> snapshots = new ArrayList<>();
             for (Iterator<Map.Entry<String, PluginMetadata>> it = ucm.plugins.entrySet().iterator(); it.hasNext();) {
                 Map.Entry<String,PluginMetadata> entry = it.next();
                 DefaultArtifact artifact = entry.getValue().getDefaultArtifact();
@@ -48,7 +51,7 @@ public class LocalOverrideUpdateCenterMetadataDecoratorImpl implements UpdateCen
                                     if (!name.equals(parsedName)) {
                                         throw new AssertionError("wrong name: " + parsedName + " vs. " + name);
                                     }
-                                    entry.setValue(m);
+                                    snapshots.add(m);
                                 }
                             }
                         }
@@ -57,6 +60,9 @@ public class LocalOverrideUpdateCenterMetadataDecoratorImpl implements UpdateCen
                     }
                 }
             }
+            for (PluginMetadata m : snapshots) {
+                ucm.override(m);
+            }
         }
 
         // deprecated mechanism, as of 1.57
@@ -96,7 +102,7 @@ public class LocalOverrideUpdateCenterMetadataDecoratorImpl implements UpdateCen
         } else {
             System.err.println("Overriding " + m.getName() + " " + stock.getVersion() + " with local build of " + m.getVersion());
         }
-        ucm.plugins.put(m.getName(), m);
+        ucm.override(m);
     }
 
     /**
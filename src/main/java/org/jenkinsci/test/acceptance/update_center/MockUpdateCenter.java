@@ -26,34 +26,15 @@ package org.jenkinsci.test.acceptance.update_center;
 
 import com.google.inject.Inject;
 import com.google.inject.Injector;
-import java.io.File;
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.AbstractMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import org.apache.commons.io.IOUtils;
-import org.apache.http.ConnectionClosedException;
-import org.apache.http.ExceptionLogger;
-import org.apache.http.HttpRequest;
-import org.apache.http.HttpResponse;
-import org.apache.http.HttpStatus;
-import org.apache.http.entity.ByteArrayEntity;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.FileEntity;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.bootstrap.HttpServer;
-import org.apache.http.impl.bootstrap.ServerBootstrap;
-import org.apache.http.protocol.HttpContext;
-import org.apache.http.protocol.HttpProcessor;
-import org.apache.http.protocol.HttpProcessorBuilder;
-import org.apache.http.protocol.RequestConnControl;
-import org.apache.http.protocol.ResponseContent;
-import org.apache.http.protocol.ResponseServer;
-import org.apache.http.protocol.UriHttpRequestHandlerMapper;
 import org.jenkinsci.test.acceptance.guice.AutoCleaned;
 import org.jenkinsci.test.acceptance.guice.TestScope;
 import org.jenkinsci.test.acceptance.po.Jenkins;
@@ -64,12 +45,19 @@ import org.json.JSONObject;
 
 /**
  * Serves a fake update center locally.
+ *
+ * Update site of every test is served by {@link MockUpdateCenterServer} shared by the whole test run.
  */
 @TestScope
 public class MockUpdateCenter implements AutoCleaned {
 
     private static final Logger LOGGER = Logger.getLogger(MockUpdateCenter.class.getName());
 
+    /**
+     * Rewritten update-center.json and the overrides it reflects, by the metadata it was created from.
+     */
+    private static final Map<UpdateCenterMetadata, Map.Entry<String, String>> JSON = new WeakHashMap<>();
+
     @Inject
     public Injector injector;
 
@@ -79,7 +67,7 @@ public class MockUpdateCenter implements AutoCleaned {
     /** Original default site ID; note that this may not match {@link CachedUpdateCenterMetadataLoader#url}. */
     private String original;
 
-    private HttpServer server;
+    private MockUpdateCenterServer.Site site;
 
     public void ensureRunning() {
         if (original != null) {
@@ -100,108 +88,85 @@ public class MockUpdateCenter implements AutoCleaned {
             LOGGER.log(Level.WARNING, "cannot load data for mock update center", x);
             return;
         }
-        JSONObject all;
+        String json;
         try {
-            all = new JSONObject(ucm.originalJSON);
-            all.remove("signature");
-            JSONObject plugins = all.getJSONObject("plugins");
-            LOGGER.info(() -> "editing JSON with " + plugins.length() + " plugins to reflect " + ucm.plugins.size() + " possible overrides");
-            for (PluginMetadata meta : ucm.plugins.values()) {
-                String name = meta.getName();
-                String version = meta.getVersion();
-                JSONObject plugin = plugins.optJSONObject(name);
-                if (plugin == null) {
-                    LOGGER.log(Level.INFO, "adding plugin {0}", name);
-                    plugin = new JSONObject().accumulate("name", name);
-                    plugins.put(name, plugin);
-                }
-                plugin.put("url", name + ".hpi");
-                updating(plugin, "version", version);
-                updating(plugin, "gav", meta.gav);
-                updating(plugin, "requiredCore", meta.requiredCore().toString());
-                updating(plugin, "dependencies", new JSONArray(meta.getDependencies().stream().map(d -> {
-                    try {
-                        return new JSONObject().accumulate("name", d.name).accumulate("version", d.version).accumulate("optional", d.optional);
-                    } catch (JSONException x) {
-                        throw new AssertionError(x);
-                    }
-                }).collect(Collectors.toList())));
-                plugin.remove("sha1");
-            }
-        } catch (JSONException x) {
+            json = updateCenterJson(ucm);
+        } catch (JSONException | IOException x) {
             LOGGER.log(Level.WARNING, "cannot prepare mock update center", x);
             return;
         }
-        HttpProcessor proc = HttpProcessorBuilder.create().
-            add(new ResponseServer("MockUpdateCenter")).
-            add(new ResponseContent()).
-            add(new RequestConnControl()).
-            build();
-        UriHttpRequestHandlerMapper handlerMapper = new UriHttpRequestHandlerMapper();
-        String json = "updateCenter.post(\n" + all + "\n);";
-        handlerMapper.register("/update-center.json", (HttpRequest request, HttpResponse response, HttpContext context) -> {
-            response.setStatusCode(HttpStatus.SC_OK);
-            response.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
-        });
-        handlerMapper.register("*.hpi", (HttpRequest request, HttpResponse response, HttpContext context) -> {
-            String plugin = request.getRequestLine().getUri().replaceFirst("^/(.+)[.]hpi$", "$1");
-            PluginMetadata meta = ucm.plugins.get(plugin);
-            if (meta == null) {
-                LOGGER.log(Level.WARNING, "no such plugin {0}", plugin);
-                response.setStatusCode(HttpStatus.SC_NOT_FOUND);
-                return;
-            }
-            File local = meta.resolve(injector, meta.getVersion());
-            LOGGER.log(Level.INFO, "serving {0}", local);
-            response.setStatusCode(HttpStatus.SC_OK);
-            response.setEntity(new FileEntity(local));
-        });
-        handlerMapper.register("*", (HttpRequest request, HttpResponse response, HttpContext context) -> {
-            String location = original.replace("/update-center.json", request.getRequestLine().getUri());
-            LOGGER.log(Level.INFO, "redirect to {0}", location);
-            /* TODO for some reason DownloadService.loadJSONHTML does not seem to process the redirect, despite calling setInstanceFollowRedirects(true):
-            response.setStatusCode(HttpStatus.SC_MOVED_TEMPORARILY);
-            response.setHeader("Location", location);
-             */
-            HttpURLConnection uc = (HttpURLConnection) new URL(location).openConnection();
-            uc.setInstanceFollowRedirects(true);
-            // TODO consider caching these downloads locally like CachedUpdateCenterMetadataLoader does for the main update-center.json
-            byte[] data = IOUtils.toByteArray(uc);
-            String contentType = uc.getContentType();
-            response.setStatusCode(HttpStatus.SC_OK);
-            response.setEntity(new ByteArrayEntity(data, ContentType.create(contentType)));
-
-        });
-        server = ServerBootstrap.bootstrap().
-            // could setLocalAddress if using a JenkinsController that requires it
-            setHttpProcessor(proc).
-            setHandlerMapper(handlerMapper).
-            setExceptionLogger(serverExceptionHandler()).
-            create();
-
         try {
-            server.start();
+            site = injector.getInstance(MockUpdateCenterServer.class).register(ucm, sites.get(0), json);
         } catch (IOException x) {
             LOGGER.log(Level.WARNING, "cannot start mock update center", x);
             return;
-
         }
         original = sites.get(0);
         // TODO figure out how to deal with Docker-based controllers which would need to have an IP address for the host
-        String override = "http://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort() + "/update-center.json";
+        String override = site.getUrl();
         LOGGER.log(Level.INFO, "replacing update site {0} with {1}", new Object[] {original, override});
         jenkins.runScript("DownloadService.signatureCheck = false; Jenkins.instance.updateCenter.sites.replaceBy([new UpdateSite(UpdateCenter.ID_DEFAULT, '%s')])", override);
     }
 
-    private ExceptionLogger serverExceptionHandler() {
-        return (Exception x) -> {
-            if (server == null) return; // Going down
-            Level level = x instanceof ConnectionClosedException ? Level.FINE: Level.WARNING;
-            LOGGER.log(level, "Exception thrown while serving request", x);
-        };
+    /**
+     * Get update-center.json with plugins served locally, created once per metadata and its overrides.
+     *
+     * Only the overrides are consulted, so plugins of an update center index are not decoded.
+     */
+    private static String updateCenterJson(UpdateCenterMetadata ucm) throws JSONException, IOException {
+        String overrides = ucm.getOverrides().values().stream()
+                .map(meta -> meta.getName() + ':' + meta.getVersion() + ':' + meta.gav)
+                .sorted()
+                .collect(Collectors.joining(","));
+        synchronized (JSON) {
+            Map.Entry<String, String> memo = JSON.get(ucm);
+            if (memo == null || !memo.getKey().equals(overrides)) {
+                memo = new AbstractMap.SimpleImmutableEntry<>(overrides, rewriteJson(ucm));
+                JSON.put(ucm, memo);
+            }
+            return memo.getValue();
+        }
+    }
+
+    private static String rewriteJson(UpdateCenterMetadata ucm) throws JSONException, IOException {
+        JSONObject all = new JSONObject(ucm.getOriginalJSON());
+        all.remove("signature");
+        JSONObject plugins = all.getJSONObject("plugins");
+        Map<String, PluginMetadata> overrides = ucm.getOverrides();
+        LOGGER.info(() -> "editing JSON with " + plugins.length() + " plugins to reflect " + overrides.size() + " overrides");
+        Iterator<?> names = plugins.keys();
+        while (names.hasNext()) {
+            String name = (String) names.next();
+            JSONObject plugin = plugins.getJSONObject(name);
+            plugin.put("url", name + ".hpi");
+            plugin.remove("sha1");
+        }
+        for (PluginMetadata meta : overrides.values()) {
+            String name = meta.getName();
+            String version = meta.getVersion();
+            JSONObject plugin = plugins.optJSONObject(name);
+            if (plugin == null) {
+                LOGGER.log(Level.INFO, "adding plugin {0}", name);
+                plugin = new JSONObject().accumulate("name", name);
+                plugins.put(name, plugin);
+            }
+            plugin.put("url", name + ".hpi");
+            updating(plugin, "version", version);
+            updating(plugin, "gav", meta.gav);
+            updating(plugin, "requiredCore", meta.requiredCore().toString());
+            updating(plugin, "dependencies", new JSONArray(meta.getDependencies().stream().map(d -> {
+                try {
+                    return new JSONObject().accumulate("name", d.name).accumulate("version", d.version).accumulate("optional", d.optional);
+                } catch (JSONException x) {
+                    throw new AssertionError(x);
+                }
+            }).collect(Collectors.toList())));
+            plugin.remove("sha1");
+        }
+        return "updateCenter.post(\n" + all + "\n);";
     }
 
-    private void updating(JSONObject plugin, String key, Object val) throws JSONException {
+    private static void updating(JSONObject plugin, String key, Object val) throws JSONException {
         Object old = plugin.opt(key);
         plugin.put(key, val);
         if (!String.valueOf(val).equals(String.valueOf(old))) {
@@ -212,10 +177,10 @@ public class MockUpdateCenter implements AutoCleaned {
     @Override
     public void close() throws IOException {
         if (original != null) {
-            LOGGER.log(Level.INFO, () -> "stopping MockUpdateCenter on http://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort() + "/update-center.json");
-            HttpServer s = server;
-            server = null; // make sure this.server holds a server that is guaranteed to be up
-            s.shutdown(5, TimeUnit.SECONDS);
+            LOGGER.log(Level.INFO, () -> "stopping MockUpdateCenter on " + site.getUrl());
+            LOGGER.log(Level.FINE, "Update center: {0}", site);
+            injector.getInstance(MockUpdateCenterServer.class).unregister(site);
+            site = null;
             /* TODO only if RemoteController etc.:
             injector.getInstance(Jenkins.class).runScript("DownloadService.signatureCheck = true; Jenkins.instance.updateCenter.sites.replaceBy([new UpdateSite(UpdateCenter.ID_DEFAULT, '%s')])", original);
             */
@@ -0,0 +1,253 @@
+package org.jenkinsci.test.acceptance.update_center;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpProcessor;
+import org.apache.http.protocol.HttpProcessorBuilder;
+import org.apache.http.protocol.RequestConnControl;
+import org.apache.http.protocol.ResponseContent;
+import org.apache.http.protocol.ResponseServer;
+import org.apache.http.protocol.UriHttpRequestHandlerMapper;
+import org.jenkinsci.test.acceptance.guice.WorldCleaner;
+import org.junit.runners.model.Statement;
+
+import com.google.inject.Injector;
+
+/**
+ * HTTP server behind all {@link MockUpdateCenter}s of the test run.
+ *
+ * <p>
+ * The server is started once and every test gets its own {@link Site} under <tt>/&lt;id&gt;/</tt>, serving
+ * <tt>update-center.json</tt>, plugins and files passed through from the original update site.
+ */
+@Singleton
+public class MockUpdateCenterServer {
+
+    private static final Logger LOGGER = Logger.getLogger(MockUpdateCenterServer.class.getName());
+
+    @Inject
+    private Injector injector;
+
+    @Inject
+    private WorldCleaner worldCleaner;
+
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    private volatile HttpServer server;
+
+    /**
+     * Update site of a single test.
+     */
+    public static final class Site {
+        private final String id;
+        private final UpdateCenterMetadata ucm;
+        /** Original default site ID. */
+        private final String original;
+        private final byte[] json;
+        private String url;
+
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong totalTime = new AtomicLong();
+
+        private Site(String id, UpdateCenterMetadata ucm, String original, String json) {
+            this.id = id;
+            this.ucm = ucm;
+            this.original = original;
+            this.json = json.getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * URL of <tt>update-center.json</tt> to be used by Jenkins.
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        public String getOriginal() {
+            return original;
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        public long getBytes() {
+            return bytes.get();
+        }
+
+        /**
+         * Time spent preparing the responses, in milliseconds.
+         */
+        public long getTotalTime() {
+            return totalTime.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d requests, %d KB, %dms", url, getRequests(), getBytes() / 1024, getTotalTime());
+        }
+    }
+
+    /**
+     * Start serving update site created from the metadata.
+     *
+     * @param original URL of update site replaced.
+     * @param json Content of <tt>update-center.json</tt> with plugin URLs relative to it.
+     */
+    public Site register(UpdateCenterMetadata ucm, String original, String json) throws IOException {
+        HttpServer s = start();
+        Site site = new Site(String.valueOf(ids.incrementAndGet()), ucm, original, json);
+        site.url = "http://" + s.getInetAddress().getHostAddress() + ":" + s.getLocalPort() + "/" + site.id + "/update-center.json";
+        sites.put(site.id, site);
+        return site;
+    }
+
+    /**
+     * Stop serving the update site.
+     */
+    public void unregister(Site site) {
+        sites.remove(site.id);
+    }
+
+    private synchronized HttpServer start() throws IOException {
+        if (server != null) return server;
+
+        HttpProcessor proc = HttpProcessorBuilder.create().
+            add(new ResponseServer("MockUpdateCenter")).
+            add(new ResponseContent()).
+            add(new RequestConnControl()).
+            build();
+        UriHttpRequestHandlerMapper handlerMapper = new UriHttpRequestHandlerMapper();
+        handlerMapper.register("*", this::handle);
+        HttpServer s = ServerBootstrap.bootstrap().
+            // could setLocalAddress if using a JenkinsController that requires it
+            setHttpProcessor(proc).
+            setHandlerMapper(handlerMapper).
+            setExceptionLogger((Exception x) -> {
+                if (server == null) return; // Going down
+                Level level = x instanceof ConnectionClosedException ? Level.FINE: Level.WARNING;
+                LOGGER.log(level, "Exception thrown while serving request", x);
+            }).
+            create();
+        s.start();
+        server = s;
+        LOGGER.log(Level.INFO, "started MockUpdateCenter on http://{0}:{1}/", new Object[] {s.getInetAddress().getHostAddress(), s.getLocalPort()});
+
+        worldCleaner.addTask(new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                stop();
+            }
+
+            @Override public String toString() {
+                return "Stop MockUpdateCenter";
+            }
+        });
+        return s;
+    }
+
+    private synchronized void stop() {
+        HttpServer s = server;
+        if (s == null) return;
+        server = null; // make sure this.server holds a server that is guaranteed to be up
+        s.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    private void handle(HttpRequest request, HttpResponse response, HttpContext context) throws IOException {
+        long start = System.currentTimeMillis();
+        // /<id>/<path>
+        String[] uri = request.getRequestLine().getUri().split("/", 3);
+        Site site = uri.length == 3 ? sites.get(uri[1]) : null;
+        if (site == null) {
+            LOGGER.log(Level.WARNING, "no update site for {0}", request.getRequestLine().getUri());
+            response.setStatusCode(HttpStatus.SC_NOT_FOUND);
+            return;
+        }
+
+        String path = uri[2];
+        String file = path.replaceFirst("[?#].*$", "");
+        if (file.equals("update-center.json")) {
+            response.setStatusCode(HttpStatus.SC_OK);
+            response.setEntity(new ByteArrayEntity(site.json, ContentType.APPLICATION_JSON));
+        } else if (file.endsWith(".hpi")) {
+            String plugin = file.replaceFirst("[.]hpi$", "");
+            PluginMetadata meta = site.ucm.plugins.get(plugin);
+            if (meta == null) {
+                LOGGER.log(Level.WARNING, "no such plugin {0}", plugin);
+                response.setStatusCode(HttpStatus.SC_NOT_FOUND);
+            } else {
+                File local = meta.resolve(injector, meta.getVersion());
+                LOGGER.log(Level.INFO, "serving {0}", local);
+                response.setStatusCode(HttpStatus.SC_OK);
+                response.setEntity(new FileChannelEntity(local, ContentType.DEFAULT_BINARY));
+            }
+        } else {
+            String location = site.original.replace("/update-center.json", "/" + path);
+            LOGGER.log(Level.INFO, "redirect to {0}", location);
+            /* TODO for some reason DownloadService.loadJSONHTML does not seem to process the redirect, despite calling setInstanceFollowRedirects(true):
+            response.setStatusCode(HttpStatus.SC_MOVED_TEMPORARILY);
+            response.setHeader("Location", location);
+             */
+            PassthroughCache.Entry cached = injector.getInstance(PassthroughCache.class).get(new URL(location));
+            response.setStatusCode(HttpStatus.SC_OK);
+            response.setEntity(new FileChannelEntity(cached.file, ContentType.parse(cached.contentType)));
+        }
+
+        HttpEntity entity = response.getEntity();
+        site.requests.incrementAndGet();
+        site.bytes.addAndGet(entity == null ? 0 : entity.getContentLength());
+        site.totalTime.addAndGet(System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Transfers the file from its channel rather than copying it through a buffer of its own.
+     */
+    private static final class FileChannelEntity extends FileEntity {
+        FileChannelEntity(File file, ContentType contentType) {
+            super(file, contentType);
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long size = channel.size();
+                for (long pos = 0; pos < size; ) {
+                    pos += channel.transferTo(pos, size - pos, target);
+                }
+            }
+            out.flush();
+        }
+    }
+}
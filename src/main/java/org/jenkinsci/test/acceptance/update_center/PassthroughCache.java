@@ -0,0 +1,237 @@
+package org.jenkinsci.test.acceptance.update_center;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import com.google.inject.Inject;
+
+/**
+ * On-disk cache of update site files {@link MockUpdateCenter} passes through from the real update site.
+ *
+ * <p>
+ * File content is stored under its SHA-256 so identical downloads are kept once. Every URL has a descriptor pointing
+ * to the content together with its <tt>ETag</tt> and <tt>Last-Modified</tt>, used to revalidate the entry once it is
+ * older than an hour. Files are written atomically so the cache can be shared by concurrent forks. Least recently used
+ * content is evicted once the cache grows over its size limit.
+ */
+@Singleton
+public class PassthroughCache {
+    private static final Logger LOGGER = Logger.getLogger(PassthroughCache.class.getName());
+
+    private static final long FRESH = TimeUnit.HOURS.toMillis(1);
+
+    @Inject(optional = true) @Named("update_center_passthrough_cache")
+    String cacheDir = new File(System.getProperty("java.io.tmpdir"), "update-center-passthrough").getPath();
+
+    /**
+     * Size limit of cached content in megabytes.
+     */
+    @Inject(optional = true) @Named("update_center_passthrough_cache_size")
+    long maxSize = 512;
+
+    /**
+     * File served from the cache.
+     */
+    public static final class Entry {
+        public final File file;
+        public final String contentType;
+
+        private Entry(File file, String contentType) {
+            this.file = file;
+            this.contentType = contentType;
+        }
+    }
+
+    /**
+     * Get the file, downloading or revalidating it when needed.
+     */
+    public @Nonnull Entry get(@Nonnull URL url) throws IOException {
+        File dir = new File(cacheDir);
+        Files.createDirectories(dir.toPath());
+
+        File descriptor = new File(dir, hex(digest().digest(url.toExternalForm().getBytes(StandardCharsets.UTF_8))) + ".properties");
+        Properties cached = load(descriptor);
+        File content = cached == null ? null : new File(dir, cached.getProperty("sha256"));
+        if (content != null && !content.exists()) {
+            cached = null; // Evicted
+        }
+
+        if (cached != null && System.currentTimeMillis() - descriptor.lastModified() < FRESH) {
+            return hit(content, cached);
+        }
+
+        HttpURLConnection uc = (HttpURLConnection) url.openConnection();
+        uc.setInstanceFollowRedirects(true);
+        if (cached != null) {
+            if (cached.getProperty("etag") != null) {
+                uc.setRequestProperty("If-None-Match", cached.getProperty("etag"));
+            }
+            if (cached.getProperty("lastModified") != null) {
+                uc.setRequestProperty("If-Modified-Since", cached.getProperty("lastModified"));
+            }
+        }
+
+        int status;
+        try {
+            status = uc.getResponseCode();
+        } catch (IOException ex) {
+            if (cached == null) throw ex;
+            LOGGER.log(Level.WARNING, "Unable to revalidate " + url + ", serving cached content", ex);
+            return hit(content, cached);
+        }
+
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            LOGGER.log(Level.FINE, "{0} not modified", url);
+            descriptor.setLastModified(System.currentTimeMillis());
+            return hit(content, cached);
+        }
+        if (status != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Server returned HTTP response code: " + status + " for URL: " + url);
+        }
+
+        LOGGER.log(Level.INFO, "caching {0}", url);
+        MessageDigest digest = digest();
+        Path tmp = Files.createTempFile(dir.toPath(), "download", ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(uc.getInputStream(), digest); OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buf = new byte[8192];
+                int len;
+                while ((len = in.read(buf)) != -1) {
+                    out.write(buf, 0, len);
+                }
+            }
+            content = new File(dir, hex(digest.digest()));
+            move(tmp, content.toPath());
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        Properties p = new Properties();
+        p.setProperty("url", url.toExternalForm());
+        p.setProperty("sha256", content.getName());
+        p.setProperty("contentType", uc.getContentType() == null ? "application/octet-stream" : uc.getContentType());
+        if (uc.getHeaderField("ETag") != null) {
+            p.setProperty("etag", uc.getHeaderField("ETag"));
+        }
+        if (uc.getHeaderField("Last-Modified") != null) {
+            p.setProperty("lastModified", uc.getHeaderField("Last-Modified"));
+        }
+        store(p, descriptor);
+
+        evict(dir);
+        return new Entry(content, p.getProperty("contentType"));
+    }
+
+    private static Entry hit(File content, Properties cached) {
+        // Modification time of the content tracks the last access for the eviction
+        content.setLastModified(System.currentTimeMillis());
+        return new Entry(content, cached.getProperty("contentType"));
+    }
+
+    /**
+     * Delete least recently used content until the cache fits its size limit.
+     */
+    private void evict(File dir) {
+        List<File> contents = new ArrayList<>();
+        long size = 0;
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File f : files) {
+            if (f.getName().length() == 64 && f.isFile()) { // SHA-256 hex
+                contents.add(f);
+                size += f.length();
+            }
+        }
+
+        long limit = maxSize * 1024 * 1024;
+        if (size <= limit) return;
+
+        contents.sort(Comparator.comparingLong(File::lastModified));
+        for (File f : contents) {
+            if (size <= limit) break;
+            long length = f.length();
+            try {
+                Files.delete(f.toPath());
+                size -= length;
+                LOGGER.log(Level.FINE, "evicted {0}", f);
+            } catch (NoSuchFileException ex) {
+                // Evicted by other fork
+                size -= length;
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Unable to evict " + f, ex);
+            }
+        }
+        // Descriptors of evicted content are discarded once read
+    }
+
+    private static Properties load(File descriptor) {
+        if (!descriptor.exists()) return null;
+        Properties p = new Properties();
+        try (InputStream in = Files.newInputStream(descriptor.toPath())) {
+            p.load(in);
+        } catch (IOException ex) {
+            return null; // Deleted or being replaced
+        }
+        return p.getProperty("sha256") == null ? null : p;
+    }
+
+    private static void store(Properties p, File descriptor) throws IOException {
+        Path tmp = Files.createTempFile(descriptor.getParentFile().toPath(), "descriptor", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                p.store(out, null);
+            }
+            move(tmp, descriptor.toPath());
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
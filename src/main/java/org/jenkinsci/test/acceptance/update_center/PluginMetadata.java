@@ -32,7 +32,7 @@ public class PluginMetadata {
     private final String name;
     private final String version;
     final String gav;
-    private final String requiredCore;
+    final String requiredCore;
     private final List<Dependency> dependencies;
 
     @JsonCreator
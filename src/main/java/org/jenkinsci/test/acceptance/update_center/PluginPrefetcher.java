@@ -0,0 +1,159 @@
+package org.jenkinsci.test.acceptance.update_center;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.io.FileUtils;
+import org.jenkinsci.test.acceptance.update_center.UpdateCenterMetadata.UnableToResolveDependencies;
+
+import com.google.inject.Injector;
+
+import hudson.util.VersionNumber;
+
+/**
+ * Resolves plugins with all their dependencies concurrently and places them in <tt>JENKINS_HOME/plugins</tt> before
+ * Jenkins is started, so they do not need to be installed through the UI nor Jenkins restarted.
+ *
+ * <p>
+ * Resolved artifacts are remembered for the lifetime of the JVM so every plugin is resolved only once.
+ *
+ * @see org.jenkinsci.test.acceptance.junit.PrefetchPlugins
+ */
+@Singleton
+public class PluginPrefetcher {
+    /**
+     * Number of artifacts resolved in parallel.
+     */
+    private static final int THREADS = 8;
+
+    @Inject
+    private UpdateCenterMetadataProvider ucmd;
+
+    @Inject
+    private Injector injector;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "Plugin prefetch");
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    /**
+     * Plugin files resolved or being resolved, by plugin name and version.
+     */
+    private final Map<String, Future<File>> resolved = new ConcurrentHashMap<>();
+
+    public static boolean isEnabled() {
+        return System.getenv("PREFETCH_PLUGINS") != null;
+    }
+
+    /**
+     * Compute the plugins to install, including transitive dependencies, in the order of installation.
+     *
+     * @param jenkinsVersion Version of Jenkins to be started.
+     * @param pluginDir Plugins already present in the directory, and their dependencies, are not included.
+     * @throws UnableToResolveDependencies When some of the plugins can not be installed.
+     */
+    public List<PluginMetadata> plan(
+            @Nonnull VersionNumber jenkinsVersion, @Nonnull Collection<PluginSpec> plugins, @Nonnull File pluginDir
+    ) throws IOException {
+        return planAll(jenkinsVersion, Collections.singletonMap("plugins", plugins), pluginDir).get("plugins").getPlugins();
+    }
+
+    /**
+     * Compute the plugins to install for several plugin sets at once.
+     *
+     * @return Plans by the key of the plugin set.
+     */
+    public <K> Map<K, DependencyResolver.Plan> planAll(
+            @Nonnull VersionNumber jenkinsVersion, @Nonnull Map<K, ? extends Collection<PluginSpec>> plugins, @Nonnull File pluginDir
+    ) throws IOException {
+        Map<String, VersionNumber> present = present(pluginDir);
+        Map<K, List<PluginSpec>> filtered = new LinkedHashMap<>();
+        for (Map.Entry<K, ? extends Collection<PluginSpec>> e : plugins.entrySet()) {
+            List<PluginSpec> specs = new ArrayList<>();
+            for (PluginSpec spec : e.getValue()) {
+                if (!present.containsKey(spec.getName())) {
+                    specs.add(spec);
+                }
+            }
+            filtered.put(e.getKey(), specs);
+        }
+        return new DependencyResolver(ucmd.get(jenkinsVersion), jenkinsVersion, present).resolveAll(filtered);
+    }
+
+    /**
+     * Versions of plugins present in the directory.
+     */
+    private static Map<String, VersionNumber> present(File pluginDir) {
+        Map<String, VersionNumber> present = new HashMap<>();
+        File[] files = pluginDir.listFiles();
+        if (files == null) return present;
+        for (File f : files) {
+            String name = f.getName();
+            if (!name.endsWith(".jpi") && !name.endsWith(".hpi")) continue;
+            try {
+                present.put(name.substring(0, name.length() - 4), new VersionNumber(PluginMetadata.LocalOverride.create(f).getVersion()));
+            } catch (AssertionError ex) {
+                LOGGER.warning("Unable to read version of " + f + ": " + ex.getCause());
+            }
+        }
+        return present;
+    }
+
+    /**
+     * Start resolving the plugins in background.
+     */
+    public void resolveAll(@Nonnull Collection<PluginMetadata> plugins) {
+        for (final PluginMetadata p : plugins) {
+            resolved.computeIfAbsent(
+                    p.getName() + ":" + p.getVersion(),
+                    key -> executor.submit(() -> p.resolve(injector, p.getVersion()))
+            );
+        }
+    }
+
+    /**
+     * Resolve the plugins and copy them to the plugin directory.
+     */
+    public void install(@Nonnull Collection<PluginMetadata> plugins, @Nonnull File pluginDir) throws IOException {
+        resolveAll(plugins);
+        for (PluginMetadata p : plugins) {
+            File file;
+            try {
+                file = resolved.get(p.getName() + ":" + p.getVersion()).get();
+            } catch (InterruptedException e) {
+                throw new IOException("Interrupted resolving " + p, e);
+            } catch (ExecutionException e) {
+                resolved.remove(p.getName() + ":" + p.getVersion());
+                throw new IOException("Unable to resolve " + p, e.getCause());
+            }
+
+            LOGGER.info("Prefetched " + p);
+            FileUtils.copyFile(file, new File(pluginDir, p.getName() + ".jpi"));
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(PluginPrefetcher.class.getName());
+}
@@ -1,5 +1,7 @@
 package org.jenkinsci.test.acceptance.update_center;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -11,9 +13,11 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jenkinsci.test.acceptance.po.Jenkins;
 import org.junit.internal.AssumptionViolatedException;
@@ -31,28 +35,77 @@ public class UpdateCenterMetadata {
 
     public String id;
 
-    String originalJSON;
+    /**
+     * File the metadata was read from, if any.
+     */
+    File source;
+
+    /**
+     * Plugins added or replaced by {@link UpdateCenterMetadataDecorator}s, by name.
+     */
+    private final Map<String, PluginMetadata> overrides = new ConcurrentHashMap<>();
+
+    /**
+     * Mandatory dependencies memoized for {@link DependencyResolver}s. Keyed by instance as plugins can be replaced.
+     */
+    private final Map<PluginMetadata, List<Dependency>> mandatoryDependencies = new ConcurrentHashMap<>();
 
     /**
      * Create metadata parsing Jenkins update center file.
      *
+     * The file is parsed as a stream, plugins are bound one by one.
+     *
      * @param data
      *      .json or .json.html file served from update center.
      */
     public static UpdateCenterMetadata parse(File data) throws IOException {
-        BufferedReader r = new BufferedReader(new FileReader(data));
-        r.readLine();   // the first line is preamble
-        String json = r.readLine(); // the 2nd line is the actual JSON
-        r.readLine();   // the third line is postamble
-
         ObjectMapper om = new ObjectMapper();
         om.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-        UpdateCenterMetadata v = om.readValue(json, UpdateCenterMetadata.class);
-        v.originalJSON = json;
+
+        UpdateCenterMetadata v = new UpdateCenterMetadata();
+        try (BufferedReader r = new BufferedReader(new FileReader(data))) {
+            r.readLine();   // the first line is preamble, the 2nd line is the actual JSON
+            JsonParser p = om.getFactory().createParser(r);
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Malformed update center metadata " + data);
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                p.nextToken();
+                if ("id".equals(field)) {
+                    v.id = p.getText();
+                } else if ("plugins".equals(field)) {
+                    while (p.nextToken() == JsonToken.FIELD_NAME) {
+                        String name = p.getCurrentName();
+                        p.nextToken();
+                        v.plugins.put(name, om.readValue(p, PluginMetadata.class));
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        v.source = data;
         v.init();
         return v;
     }
 
+    /**
+     * Get the update center JSON this was parsed from.
+     *
+     * The JSON is not kept in memory, it is read from the file on every call.
+     *
+     * @throws IOException When the metadata was not parsed from a file.
+     */
+    String getOriginalJSON() throws IOException {
+        if (source == null) throw new IOException("Metadata of " + id + " was not read from update center file");
+
+        try (BufferedReader r = new BufferedReader(new FileReader(source))) {
+            r.readLine();   // the first line is preamble
+            return r.readLine(); // the 2nd line is the actual JSON
+        }
+    }
+
     public static UpdateCenterMetadata get(String id, Map<String,PluginMetadata> plugins) {
         UpdateCenterMetadata ucm = new UpdateCenterMetadata();
         ucm.id = id;
@@ -67,6 +120,38 @@ public class UpdateCenterMetadata {
         }
     }
 
+    /**
+     * Add or replace the plugin, remembering it differs from what update center offers.
+     *
+     * {@link UpdateCenterMetadataDecorator}s are expected to use this rather than modifying {@link #plugins} directly.
+     */
+    public void override(PluginMetadata plugin) {
+        plugins.put(plugin.getName(), plugin);
+        overrides.put(plugin.getName(), plugin);
+    }
+
+    /**
+     * Plugins {@linkplain #override(PluginMetadata) overridden}, by name.
+     */
+    public Map<String, PluginMetadata> getOverrides() {
+        return Collections.unmodifiableMap(overrides);
+    }
+
+    /**
+     * Dependencies of the plugin that are not optional.
+     */
+    List<Dependency> mandatoryDependenciesOf(PluginMetadata p) {
+        return mandatoryDependencies.computeIfAbsent(p, plugin -> {
+            List<Dependency> deps = new ArrayList<>();
+            for (Dependency d : plugin.getDependencies()) {
+                if (!d.optional) {
+                    deps.add(d);
+                }
+            }
+            return deps;
+        });
+    }
+
     /**
      * Find all the transitive dependency plugins of the given plugins, in the order of installation.
      * 
@@ -79,67 +164,16 @@ public class UpdateCenterMetadata {
      */
     @Deprecated
     public List<PluginMetadata> transitiveDependenciesOf(Jenkins jenkins, Collection<PluginSpec> plugins) throws UnableToResolveDependencies {
-        List<PluginMetadata> set = new ArrayList<>();
         for (PluginSpec n : plugins) {
-            PluginMetadata p = this.plugins.get(n.getName());
-            if (p==null) {
+            if (!this.plugins.containsKey(n.getName())) {
                 // The plugin explicitly requested is not available in the configured update center
                 // Skipping the test since it can happen for both upstream and downstream update centers
                 throw new AssumptionViolatedException("No such plugin " + n.getName());
             }
-            if (p.requiredCore().isNewerThan(jenkins.getVersion())) {
-                throw new UnableToResolveDependencies(String.format(
-                        "Unable to install %s plugin because of core dependency. Required: %s Used: %s",
-                        p, p.requiredCore(), jenkins
-                ));
-            }
-
-            transitiveDependenciesOf(jenkins, p, n.getVersion(), set);
-        }
-
-        return set;
-    }
-
-    @Deprecated
-    private void transitiveDependenciesOf(Jenkins jenkins, PluginMetadata p, String v, List<PluginMetadata> result) {
-        for (Dependency d : p.getDependencies()) {
-            if (d.optional || !shouldBeIncluded(jenkins, d)) continue;
-            PluginMetadata depMetaData = plugins.get(d.name);
-            if (depMetaData == null) {
-                throw new UnableToResolveDependencies(
-                    String.format("Unable to install dependency '%s' for '%s': plugin not found", d, p)
-                );
-            }
-            transitiveDependenciesOf(jenkins, depMetaData, d.version, result);
         }
 
-        if (!result.contains(p)) {
-            if (p.requiredCore().isNewerThan(jenkins.getVersion())) {
-                // If latest version is too new for current Jenkins, use the declared one
-                result.add(p.withVersion(v));
-            } else {
-                result.add(p);
-            }
-        }
-    }
-
-    /**
-     * Assess whether the dependency actually needs to be installed or upgraded.
-     * 
-     * @param jenkins top-level jenkins object
-     * @param d the dependency
-     * @return true if the dependency should be installed/upgraded. Otherwise, false.
-     */
-    @Deprecated
-    private boolean shouldBeIncluded(Jenkins jenkins, Dependency d) {
-        try {
-            VersionNumber installedVersion = jenkins.getPlugin(d.name).getVersion();
-            VersionNumber requiredVersion = new VersionNumber(d.version);
-            return installedVersion.isOlderThan(requiredVersion);
-        } catch (IllegalArgumentException ex) {
-            // Plugin not installed
-            return true;
-        }
+        Map<String, VersionNumber> installed = jenkins.getPluginManager().getInstalledPlugins();
+        return new DependencyResolver(this, jenkins.getVersion(), installed).resolve(plugins).getPlugins();
     }
 
     /**
@@ -0,0 +1,227 @@
+package org.jenkinsci.test.acceptance.update_center;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact index of update center metadata, written next to the <tt>.jsonp</tt> file it was created from.
+ *
+ * <p>
+ * The index holds only the fields {@link PluginMetadata} needs, preceded by a table of plugin names and positions of
+ * their records. It is memory-mapped when loaded and plugins are decoded lazily once looked up by name. The index is
+ * recreated when the <tt>.jsonp</tt> file changes.
+ */
+final class UpdateCenterMetadataIndex {
+    private static final int MAGIC = 0x55434931; // UCI1
+
+    private UpdateCenterMetadataIndex() {}
+
+    /**
+     * Load metadata of the update center file, using its index when up to date.
+     */
+    static UpdateCenterMetadata load(File jsonp) throws IOException {
+        File index = new File(jsonp.getPath().replaceFirst("[.]jsonp$", "") + ".idx");
+
+        UpdateCenterMetadata ucm = read(index, jsonp);
+        if (ucm != null) return ucm;
+
+        ucm = UpdateCenterMetadata.parse(jsonp);
+        try {
+            write(ucm, jsonp, index);
+        } catch (IOException ex) {
+            System.err.println("Unable to write " + index + ": " + ex);
+        }
+        return ucm;
+    }
+
+    private static void write(UpdateCenterMetadata ucm, File jsonp, File index) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream r = new DataOutputStream(records);
+        List<String> names = new ArrayList<>(ucm.plugins.keySet());
+        int[] offsets = new int[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            PluginMetadata p = ucm.plugins.get(names.get(i));
+            offsets[i] = r.size();
+            writeString(r, p.getName());
+            writeString(r, p.gav);
+            writeString(r, p.getVersion());
+            writeString(r, p.requiredCore);
+            r.writeInt(p.getDependencies().size());
+            for (Dependency d : p.getDependencies()) {
+                writeString(r, d.name);
+                writeString(r, d.version);
+                r.writeBoolean(d.optional);
+            }
+        }
+
+        Path tmp = Files.createTempFile(index.getParentFile().toPath(), index.getName(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmp); DataOutputStream out = new DataOutputStream(os)) {
+                out.writeInt(MAGIC);
+                out.writeLong(jsonp.length());
+                out.writeLong(jsonp.lastModified());
+                writeString(out, ucm.id);
+                out.writeInt(names.size());
+                for (int i = 0; i < names.size(); i++) {
+                    writeString(out, names.get(i));
+                    out.writeInt(offsets[i]);
+                }
+                records.writeTo(out);
+            }
+            try {
+                Files.move(tmp, index.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, index.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * @return null if the index does not exist or does not match the update center file.
+     */
+    private static UpdateCenterMetadata read(File index, File jsonp) throws IOException {
+        if (!index.exists()) return null;
+
+        MappedByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(index.toPath(), StandardOpenOption.READ)) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buf.remaining() < 20 || buf.getInt() != MAGIC) return null;
+        if (buf.getLong() != jsonp.length() || buf.getLong() != jsonp.lastModified()) return null;
+
+        UpdateCenterMetadata ucm = new UpdateCenterMetadata();
+        ucm.id = readString(buf);
+        ucm.source = jsonp;
+        int count = buf.getInt();
+        Map<String, Integer> positions = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String name = readString(buf);
+            positions.put(name, buf.getInt());
+        }
+        ucm.plugins = new LazyPlugins(ucm, buf.slice(), positions);
+        return ucm;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Plugins decoded from the index once requested.
+     *
+     * Iterating the map decodes all the remaining plugins.
+     */
+    private static final class LazyPlugins extends AbstractMap<String, PluginMetadata> {
+        private final UpdateCenterMetadata owner;
+        private final ByteBuffer records;
+        /** Record positions of plugins not decoded yet. */
+        private final Map<String, Integer> positions;
+        private final Map<String, PluginMetadata> decoded = new HashMap<>();
+
+        private LazyPlugins(UpdateCenterMetadata owner, ByteBuffer records, Map<String, Integer> positions) {
+            this.owner = owner;
+            this.records = records;
+            this.positions = positions;
+        }
+
+        @Override
+        public synchronized PluginMetadata get(Object key) {
+            PluginMetadata p = decoded.get(key);
+            if (p == null) {
+                Integer position = positions.remove(key);
+                if (position != null) {
+                    p = decode(position);
+                    decoded.put((String) key, p);
+                }
+            }
+            return p;
+        }
+
+        @Override
+        public synchronized boolean containsKey(Object key) {
+            return decoded.containsKey(key) || positions.containsKey(key);
+        }
+
+        @Override
+        public synchronized PluginMetadata put(String key, PluginMetadata value) {
+            PluginMetadata old = get(key);
+            decoded.put(key, value);
+            return old;
+        }
+
+        @Override
+        public synchronized PluginMetadata remove(Object key) {
+            PluginMetadata old = get(key);
+            decoded.remove(key);
+            return old;
+        }
+
+        @Override
+        public synchronized int size() {
+            return decoded.size() + positions.size();
+        }
+
+        @Override
+        public synchronized Set<Entry<String, PluginMetadata>> entrySet() {
+            for (Iterator<Entry<String, Integer>> it = positions.entrySet().iterator(); it.hasNext(); ) {
+                Entry<String, Integer> e = it.next();
+                decoded.put(e.getKey(), decode(e.getValue()));
+                it.remove();
+            }
+            return decoded.entrySet();
+        }
+
+        private PluginMetadata decode(int position) {
+            ByteBuffer buf = records.duplicate();
+            buf.position(position);
+            String name = readString(buf);
+            String gav = readString(buf);
+            String version = readString(buf);
+            String requiredCore = readString(buf);
+            int count = buf.getInt();
+            List<Dependency> dependencies = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                dependencies.add(new Dependency(readString(buf), readString(buf), buf.get() != 0));
+            }
+            PluginMetadata p = new PluginMetadata(name, gav, version, requiredCore, dependencies);
+            p.init(owner);
+            return p;
+        }
+    }
+}
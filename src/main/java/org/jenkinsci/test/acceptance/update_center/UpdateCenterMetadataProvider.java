@@ -25,6 +25,7 @@
 package org.jenkinsci.test.acceptance.update_center;
 
 import com.google.inject.ImplementedBy;
+import hudson.util.VersionNumber;
 import java.io.IOException;
 import org.jenkinsci.test.acceptance.po.Jenkins;
 
@@ -42,4 +43,15 @@ public interface UpdateCenterMetadataProvider {
      */
     UpdateCenterMetadata get(Jenkins jenkins) throws IOException;
 
+    /**
+     * Loads metadata for given core version, when Jenkins is not running yet.
+     * Providers that need running Jenkins do not support this.
+     * @param jenkinsVersion the core version
+     * @return parsed {@code update-center.json}
+     * @throws IOException if there is any problem, or the provider does not support it
+     */
+    default UpdateCenterMetadata get(VersionNumber jenkinsVersion) throws IOException {
+        throw new IOException(getClass().getName() + " can not load metadata before Jenkins is started");
+    }
+
 }
@@ -23,6 +23,8 @@
  */
 package org.jenkinsci.test.acceptance.utils;
 
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -30,10 +32,45 @@ import java.util.concurrent.TimeUnit;
  *
  * This implementation takes number of concurrent threads into account.
  *
+ * <p>
+ * With <tt>-DElasticTime.adaptive=true</tt>, the number of threads is replaced by multipliers derived from latencies
+ * measured while the tests run, per {@link Category}. Each multiplier is the 90th percentile of recent latencies
+ * relative to the one expected in the reference environment, so the timeouts grow on an overloaded machine and
+ * shrink on a fast one.
+ *
  * @author ogondza
  */
 public class ElasticTime {
 
+    /**
+     * Kind of operation the time is measured or waited for.
+     */
+    public enum Category {
+        /** JSON API round trip. */
+        API(200),
+        /** Page load in browser. */
+        PAGE(1500),
+        /** Jenkins startup until it is fully up and running. */
+        BOOT(60000);
+
+        /** Expected latency in reference environment, in milliseconds. */
+        private final long reference;
+        private final Samples samples = new Samples();
+
+        Category(long reference) {
+            this.reference = reference;
+        }
+    }
+
+    private static final boolean ADAPTIVE = Boolean.getBoolean("ElasticTime.adaptive");
+
+    /**
+     * Samples needed before adaptive multiplier is used.
+     */
+    private static final int MIN_SAMPLES = 10;
+    private static final double MIN_MULTIPLIER = 0.5;
+    private static final double MAX_MULTIPLIER = 10;
+
     /**
      * Amount of threads executing concurrently. Time is slowed down proportionally.
      */
@@ -46,12 +83,84 @@ public class ElasticTime {
      */
     private final double factor = Double.parseDouble(System.getProperty("ElasticTime.factor", "1.0"));
 
+    /**
+     * Record latency of an operation.
+     */
+    public static void record(Category category, long ms) {
+        category.samples.add(ms);
+    }
+
     public long seconds(long secs) {
         return milliseconds(TimeUnit.SECONDS.toMillis(secs));
     }
 
     public long milliseconds(long ms) {
-        double coeficient = concurrency * factor;
+        double coeficient = factor * Math.max(multiplier(Category.API), multiplier(Category.PAGE));
         return Math.round(ms * coeficient);
     }
+
+    public long seconds(long secs, Category category) {
+        return milliseconds(TimeUnit.SECONDS.toMillis(secs), category);
+    }
+
+    public long milliseconds(long ms, Category category) {
+        return Math.round(ms * factor * multiplier(category));
+    }
+
+    /**
+     * Multiplier for the category, not including {@link #factor}.
+     */
+    private double multiplier(Category category) {
+        if (ADAPTIVE) {
+            long p90 = category.samples.percentile(90);
+            if (p90 >= 0) {
+                double m = (double) p90 / category.reference;
+                return Math.min(MAX_MULTIPLIER, Math.max(MIN_MULTIPLIER, m));
+            }
+        }
+        return concurrency;
+    }
+
+    public static boolean isAdaptive() {
+        return ADAPTIVE;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ElasticTime: factor=").append(factor);
+        for (Category c : Category.values()) {
+            sb.append(String.format(Locale.ENGLISH, ", %s=%.2f (p90 %dms of %d samples)",
+                    c.name().toLowerCase(Locale.ENGLISH), factor * multiplier(c), c.samples.percentile(90), c.samples.count()
+            ));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Latencies of the most recent operations.
+     */
+    private static final class Samples {
+        private final long[] window = new long[100];
+        private long count;
+
+        synchronized void add(long ms) {
+            window[(int) (count++ % window.length)] = ms;
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        /**
+         * @return -1 if there are not enough samples.
+         */
+        synchronized long percentile(int percentile) {
+            int size = (int) Math.min(count, window.length);
+            if (size < MIN_SAMPLES) return -1;
+
+            long[] sorted = Arrays.copyOf(window, size);
+            Arrays.sort(sorted);
+            return sorted[Math.min(size - 1, size * percentile / 100)];
+        }
+    }
 }
@@ -0,0 +1,394 @@
+package org.jenkinsci.test.acceptance.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.jenkinsci.test.acceptance.guice.AutoCleaned;
+import org.jenkinsci.test.acceptance.guice.TestScope;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.AbstractWebDriverEventListener;
+import org.openqa.selenium.support.events.WebDriverEventListener;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads JSON API of, and posts to, Jenkins under test on behalf of the user logged in the browser.
+ *
+ * <p>
+ * Connections are pooled and kept alive across tests. Browser cookies are cached for the test and read again after
+ * navigation, Jenkins restart, or when Jenkins either rejects them (401/403) or sets new ones. Requests rejected
+ * with 401/403 are retried once with fresh cookies. Crumbs are cached per session.
+ *
+ * <p>
+ * Identical requests can optionally be answered from memory when repeated within <tt>JSON_API_CACHE_TTL</tt>
+ * milliseconds and no navigation or click happened in the meantime. Disabled by default.
+ */
+@TestScope
+public class JsonApiClient implements AutoCleaned {
+    private static final CloseableHttpClient CLIENT;
+    static {
+        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+        cm.setMaxTotal(50);
+        cm.setDefaultMaxPerRoute(20);
+
+        int timeout = (int) new ElasticTime().milliseconds(10000);
+        CLIENT = HttpClients.custom()
+                .setConnectionManager(cm)
+                .disableCookieManagement()
+                .useSystemProperties()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(timeout)
+                        .setSocketTimeout(timeout)
+                        .build()
+                )
+                .build()
+        ;
+    }
+
+    /**
+     * Upper bound of requests {@link #postAll} sends at a time, kept below the connection limit per route.
+     */
+    private static final int PARALLEL_POSTS = 8;
+
+    private static final long TTL = Long.parseLong(StringUtils.defaultIfBlank(System.getenv("JSON_API_CACHE_TTL"), "0"));
+
+    @Inject
+    private ObjectMapper jsonParser;
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Crumbs are bound to the session so they are keyed by Jenkins URL and cookies.
+     */
+    private final Map<String, String[]> crumbs = new ConcurrentHashMap<>();
+
+    /**
+     * Cookies of the browser session, null when they need to be read from the browser.
+     */
+    private volatile String cookies;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong cookieLookups = new AtomicLong();
+    private final AtomicLong totalTime = new AtomicLong();
+
+    /**
+     * Read JSON from the URL on behalf of the user logged in to the browser.
+     *
+     * @throws IOException When the response could not be read or it is not successful.
+     */
+    public @Nonnull JsonNode getJson(@Nonnull URL url, @Nonnull WebDriver driver) throws IOException {
+        String key = url.toExternalForm();
+        if (TTL > 0) {
+            Entry e = cache.get(key);
+            if (e != null && e.expires > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return e.json.deepCopy();
+            }
+        }
+
+        JsonNode json;
+        try {
+            json = fetch(url, getCookies(driver));
+        } catch (HttpStatusException ex) {
+            if (!ex.isSessionRejected()) throw ex;
+            json = fetch(url, getCookies(driver));
+        }
+        if (TTL > 0) {
+            cache.put(key, new Entry(json.deepCopy(), System.currentTimeMillis() + TTL));
+        }
+        return json;
+    }
+
+    private JsonNode fetch(URL url, String cookies) throws IOException {
+        long start = System.currentTimeMillis();
+        HttpGet get = new HttpGet(url.toExternalForm());
+        get.setHeader("Cookie", cookies);
+        try (CloseableHttpResponse rsp = CLIENT.execute(get)) {
+            int status = checkSession(rsp, cookies);
+            if (status >= 400) {
+                EntityUtils.consumeQuietly(rsp.getEntity());
+                throw new HttpStatusException(status, url.toExternalForm(), "");
+            }
+
+            try (InputStream in = rsp.getEntity().getContent()) {
+                return jsonParser.readTree(in);
+            }
+        } finally {
+            long duration = System.currentTimeMillis() - start;
+            requests.incrementAndGet();
+            totalTime.addAndGet(duration);
+            ElasticTime.record(ElasticTime.Category.API, duration);
+        }
+    }
+
+    /**
+     * POST to Jenkins on behalf of the user logged in to the browser, including the crumb when Jenkins requires one.
+     *
+     * @param jenkins Root URL of Jenkins.
+     * @param path URL relative to Jenkins root, or absolute URL.
+     * @return Response body.
+     * @throws IOException When the request is not successful.
+     */
+    public @Nonnull String post(@Nonnull URL jenkins, @Nonnull String path, @Nonnull HttpEntity entity, @Nonnull WebDriver driver) throws IOException {
+        String cookies = getCookies(driver);
+        try {
+            return execute(newPost(jenkins, path, entity, getCrumb(jenkins, cookies), cookies));
+        } catch (HttpStatusException ex) {
+            if (!ex.isSessionRejected()) throw ex;
+            cookies = getCookies(driver);
+            return execute(newPost(jenkins, path, entity, getCrumb(jenkins, cookies), cookies));
+        }
+    }
+
+    /**
+     * POST several requests to Jenkins in parallel, on behalf of the user logged in to the browser.
+     *
+     * <p>
+     * Browser is consulted for cookies and crumb on the calling thread only, as WebDriver is not thread safe. Requests
+     * rejected with 401/403 are retried once, sequentially, after the cookies are read again.
+     *
+     * @param jenkins Root URL of Jenkins.
+     * @param requests Entities to post, keyed by URL relative to Jenkins root or absolute URL.
+     * @return Response bodies, in the order of requests.
+     * @throws IOException When any of the requests is not successful.
+     */
+    public @Nonnull List<String> postAll(@Nonnull URL jenkins, @Nonnull Map<String, ? extends HttpEntity> requests, @Nonnull WebDriver driver) throws IOException {
+        String cookies = getCookies(driver);
+        String[] crumb;
+        try {
+            crumb = getCrumb(jenkins, cookies);
+        } catch (HttpStatusException ex) {
+            if (!ex.isSessionRejected()) throw ex;
+            cookies = getCookies(driver);
+            crumb = getCrumb(jenkins, cookies);
+        }
+
+        List<Map.Entry<String, ? extends HttpEntity>> entries = new ArrayList<>(requests.entrySet());
+        List<Callable<String>> posts = new ArrayList<>(entries.size());
+        for (Map.Entry<String, ? extends HttpEntity> request : entries) {
+            final HttpPost post = newPost(jenkins, request.getKey(), request.getValue(), crumb, cookies);
+            posts.add(new Callable<String>() {
+                @Override public String call() throws IOException {
+                    return execute(post);
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(posts.size(), PARALLEL_POSTS)));
+        try {
+            List<Future<String>> futures = executor.invokeAll(posts);
+            List<String> bodies = new ArrayList<>(posts.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    bodies.add(futures.get(i).get());
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof HttpStatusException && ((HttpStatusException) cause).isSessionRejected()) {
+                        Map.Entry<String, ? extends HttpEntity> request = entries.get(i);
+                        cookies = getCookies(driver);
+                        bodies.add(execute(newPost(jenkins, request.getKey(), request.getValue(), getCrumb(jenkins, cookies), cookies)));
+                        continue;
+                    }
+                    if (cause instanceof IOException) throw (IOException) cause;
+                    throw new IOException(cause);
+                }
+            }
+            return bodies;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted posting to " + jenkins);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpPost newPost(URL jenkins, String path, HttpEntity entity, String[] crumb, String cookies) throws IOException {
+        HttpPost post = new HttpPost(new URL(jenkins, path).toExternalForm());
+        post.setHeader("Cookie", cookies);
+        if (crumb.length == 2) {
+            post.setHeader(crumb[0], crumb[1]);
+        }
+        post.setEntity(entity);
+        return post;
+    }
+
+    private String execute(HttpPost post) throws IOException {
+        long start = System.currentTimeMillis();
+        try (CloseableHttpResponse rsp = CLIENT.execute(post)) {
+            int status = checkSession(rsp, post.getFirstHeader("Cookie").getValue());
+            String body = rsp.getEntity() == null ? "" : EntityUtils.toString(rsp.getEntity());
+            if (status >= 400) {
+                throw new HttpStatusException(status, post.getURI().toString(), "\n" + body);
+            }
+            return body;
+        } finally {
+            // Whatever was cached might have changed
+            cache.clear();
+            requests.incrementAndGet();
+            totalTime.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Get crumb header name and value, or empty array when crumbs are not required.
+     */
+    private String[] getCrumb(URL jenkins, String cookies) throws IOException {
+        String key = jenkins.toExternalForm() + ' ' + cookies;
+        String[] crumb = crumbs.get(key);
+        if (crumb == null) {
+            try {
+                JsonNode json = fetch(new URL(jenkins, "crumbIssuer/api/json"), cookies);
+                crumb = new String[] { json.get("crumbRequestField").asText(), json.get("crumb").asText() };
+            } catch (HttpStatusException ex) {
+                if (ex.status != 404) throw ex;
+                crumb = new String[0]; // No crumb issuer configured
+            }
+            crumbs.put(key, crumb);
+        }
+        return crumb;
+    }
+
+    private String getCookies(WebDriver driver) {
+        String cookies = this.cookies;
+        if (cookies == null) {
+            cookieLookups.incrementAndGet();
+            StringBuilder sb = new StringBuilder();
+            for (Cookie cookie : driver.manage().getCookies()) {
+                if (sb.length() > 0) sb.append("; ");
+                sb.append(cookie.getName()).append('=').append(cookie.getValue());
+            }
+            this.cookies = cookies = sb.toString();
+        }
+        return cookies;
+    }
+
+    /**
+     * Forget the cookies when Jenkins rejected or replaced the session they were sent with.
+     *
+     * @return Response status code.
+     */
+    private int checkSession(CloseableHttpResponse rsp, String sent) {
+        int status = rsp.getStatusLine().getStatusCode();
+        if (status == 401 || status == 403 || rsp.containsHeader("Set-Cookie")) {
+            if (sent.equals(cookies)) {
+                cookies = null;
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Forget cached responses and cookies as the browser state might have changed.
+     */
+    public void invalidate() {
+        cache.clear();
+        cookies = null;
+    }
+
+    /**
+     * Listener to register to the browser so the client is invalidated when needed.
+     */
+    public WebDriverEventListener getInvalidator() {
+        return new AbstractWebDriverEventListener() {
+            @Override
+            public void afterNavigateTo(String url, WebDriver driver) {
+                invalidate();
+            }
+
+            @Override
+            public void afterNavigateBack(WebDriver driver) {
+                invalidate();
+            }
+
+            @Override
+            public void afterNavigateForward(WebDriver driver) {
+                invalidate();
+            }
+
+            @Override
+            public void afterClickOn(WebElement element, WebDriver driver) {
+                invalidate();
+            }
+        };
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getCacheHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Total time spent on the requests, in milliseconds.
+     */
+    public long getTotalTime() {
+        return totalTime.get();
+    }
+
+    @Override
+    public void close() {
+        long count = requests.get();
+        if (count == 0 && hits.get() == 0) return;
+
+        LOGGER.fine(String.format("JSON API: %d requests (avg %dms), %d cache hits, %d cookie lookups",
+                count, count == 0 ? 0 : totalTime.get() / count, hits.get(), cookieLookups.get()
+        ));
+    }
+
+    private static final class HttpStatusException extends IOException {
+        private final int status;
+
+        private HttpStatusException(int status, String url, String details) {
+            super("Server returned HTTP response code: " + status + " for URL: " + url + details);
+            this.status = status;
+        }
+
+        private boolean isSessionRejected() {
+            return status == 401 || status == 403;
+        }
+    }
+
+    private static final class Entry {
+        private final JsonNode json;
+        private final long expires;
+
+        private Entry(JsonNode json, long expires) {
+            this.json = json;
+            this.expires = expires;
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(JsonApiClient.class.getName());
+}
@@ -25,9 +25,21 @@
 package org.jenkinsci.test.acceptance.utils.aether;
 
 import java.io.File;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import javax.inject.Inject;
+import javax.inject.Singleton;
 
 import org.apache.maven.settings.Settings;
 import org.apache.maven.settings.building.DefaultSettingsBuilderFactory;
@@ -36,6 +48,7 @@ import org.apache.maven.settings.building.SettingsBuilder;
 import org.apache.maven.settings.building.SettingsBuildingException;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.repository.Authentication;
 import org.eclipse.aether.repository.Proxy;
@@ -52,26 +65,48 @@ import org.slf4j.LoggerFactory;
  * Helper class to resolve artifacts with Aether
  * with http proxy support
  *
+ * <p>
+ * Maven settings are read and the remote repository is configured once. Resolved files are remembered by their
+ * coordinates so repeated lookups do not reach Aether at all.
+ *
  * @author scott.hebert@ericsson.com
  */
+@Singleton
 public class ArtifactResolverUtil {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactResolverUtil.class);
+
+    /**
+     * Number of artifacts resolved in parallel by {@link #resolveAll(Collection)}.
+     */
+    private static final int THREADS = 4;
+
     private RepositorySystem repoSystem;
     private RepositorySystemSession repoSystemSession;
+    private final List<RemoteRepository> repositories;
+
+    /**
+     * Files of artifacts resolved so far by their coordinates.
+     */
+    private final Map<String, File> resolved = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "Artifact resolution");
+            t.setDaemon(true);
+            return t;
+        }
+    });
 
     @Inject
     public ArtifactResolverUtil(RepositorySystem rs, RepositorySystemSession rss) {
         repoSystem = rs;
         repoSystemSession = rss;
+        repositories = Collections.singletonList(createRepository());
     }
 
-    /**
-     * @param artifact The artifact to be resolved
-     *
-     * @return artifact resolution result
-     */
-    public ArtifactResult resolve(DefaultArtifact artifact) {
+    private static RemoteRepository createRepository() {
         Builder repoBuilder = new RemoteRepository.Builder(
                 "repo.jenkins-ci.org", "default",
                 "http://repo.jenkins-ci.org/public/");
@@ -100,17 +135,65 @@ public class ArtifactResolverUtil {
             }
         }
 
-        RemoteRepository repo = repoBuilder.build();
+        return repoBuilder.build();
+    }
+
+    /**
+     * @param artifact The artifact to be resolved
+     *
+     * @return artifact resolution result
+     */
+    public ArtifactResult resolve(DefaultArtifact artifact) {
+        ArtifactRequest request = new ArtifactRequest(artifact, repositories, null);
+        File file = resolved.get(artifact.toString());
+        if (file != null) {
+            return new ArtifactResult(request).setArtifact(artifact.setFile(file));
+        }
+
         ArtifactResult r;
         try {
-            r = repoSystem.resolveArtifact(repoSystemSession,new ArtifactRequest(artifact, Arrays.asList(repo), null));
+            r = repoSystem.resolveArtifact(repoSystemSession, request);
         } catch (ArtifactResolutionException e) {
             throw new RuntimeException("Could not resolve " + artifact + " from Maven repository",e);
         }
         LOGGER.debug("Found " + r);
+        resolved.put(artifact.toString(), r.getArtifact().getFile());
         return r;
     }
 
+    /**
+     * Resolve artifacts in parallel.
+     *
+     * @return Files of the artifacts in the same order.
+     */
+    public List<File> resolveAll(Collection<? extends Artifact> artifacts) {
+        List<Future<File>> futures = new ArrayList<>();
+        for (final Artifact artifact : artifacts) {
+            File file = resolved.get(artifact.toString());
+            if (file != null) {
+                futures.add(CompletableFuture.completedFuture(file));
+            } else {
+                futures.add(executor.submit(() -> resolve(new DefaultArtifact(
+                        artifact.getGroupId(), artifact.getArtifactId(), artifact.getClassifier(), artifact.getExtension(), artifact.getVersion()
+                )).getArtifact().getFile()));
+            }
+        }
+
+        List<File> files = new ArrayList<>();
+        for (Future<File> f : futures) {
+            try {
+                files.add(f.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted resolving " + artifacts, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        return files;
+    }
+
     /**
      * Converts Maven Proxy to Aether Proxy
      *
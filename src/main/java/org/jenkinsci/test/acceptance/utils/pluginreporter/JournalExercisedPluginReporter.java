@@ -0,0 +1,321 @@
+package org.jenkinsci.test.acceptance.utils.pluginreporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import javax.annotation.CheckForNull;
+
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Exercised Plugin Reporter that appends records to a journal and writes the report once the JVM terminates.
+ *
+ * <p>
+ * Every JVM (surefire fork) appends to its own journal in <tt>target/exercised-plugins/</tt> so no locking or
+ * re-reading is needed while the tests run. Records are flushed as they are logged so a killed fork loses at most
+ * the line being written. The journal stays locked for the lifetime of the JVM. When the JVM
+ * terminates, journals of all terminated forks are compacted into a single deduplicated journal and the report is
+ * written from the records of all the forks seen so far. So the last fork to terminate writes the complete report.
+ *
+ * <p>
+ * Forks of the same build share the <tt>exercisedPlugins.runId</tt> system property, set by the Maven build.
+ * Records of a different run are discarded by the first fork of a new run. Without the property, every JVM is a run
+ * on its own.
+ */
+public class JournalExercisedPluginReporter implements ExercisedPluginsReporter {
+
+    public enum Format {
+        /**
+         * <tt>exercised-plugins.properties</tt> with <tt>testName$pluginName = pluginVersion</tt> entries.
+         */
+        PROPERTIES("properties"),
+        /**
+         * <tt>exercised-plugins.json</tt> with array of <tt>{test, plugin, version}</tt> objects.
+         */
+        JSON("json"),
+        /**
+         * <tt>exercised-plugins.csv</tt> with <tt>test,plugin,version</tt> columns.
+         */
+        CSV("csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalExercisedPluginReporter.class);
+    private static final Map<Format, JournalExercisedPluginReporter> INSTANCES = new TreeMap<>();
+
+    private static final String JOURNAL_PREFIX = "journal-";
+    private static final String COMPACTED = "compacted.journal";
+    private static final String RUN = "run";
+
+    private static final String RUN_ID = System.getProperty("exercisedPlugins.runId", UUID.randomUUID().toString());
+
+    /**
+     * Journals of this JVM still being written. Their locks are held by this JVM so they can not be probed.
+     */
+    private static final Set<File> OPEN_JOURNALS = Collections.synchronizedSet(new HashSet<File>());
+
+    private final Format format;
+    private final File dir;
+    private final File report;
+    private final File journal;
+    private Writer writer;
+
+    /*package*/ JournalExercisedPluginReporter(Format format, File target) {
+        this.format = format;
+        dir = new File(target, "exercised-plugins");
+        report = new File(target, "exercised-plugins." + format.extension);
+        journal = new File(dir, JOURNAL_PREFIX + UUID.randomUUID() + ".log");
+
+        try {
+            Files.createDirectories(dir.toPath());
+            try (FileChannel global = openGlobalLock(); FileLock ignored = global.lock()) {
+                File run = new File(dir, RUN);
+                if (!run.exists() || !RUN_ID.equals(FileUtils.readFileToString(run, StandardCharsets.UTF_8.name()))) {
+                    // First fork of the run, start from scratch
+                    LOGGER.info("Deleting " + dir.getAbsolutePath());
+                    for (File f : listJournals()) {
+                        Files.delete(f.toPath());
+                    }
+                    Files.deleteIfExists(new File(dir, COMPACTED).toPath());
+                    Files.deleteIfExists(report.toPath());
+                    FileUtils.writeStringToFile(run, RUN_ID, StandardCharsets.UTF_8.name());
+                }
+
+                // Released once the writer closes the channel
+                FileChannel channel = FileChannel.open(journal.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                channel.lock();
+                OPEN_JOURNALS.add(journal);
+                writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), 8192);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Unable to create journal " + journal, e);
+        }
+    }
+
+    public static synchronized JournalExercisedPluginReporter getInstance(Format format) {
+        JournalExercisedPluginReporter instance = INSTANCES.get(format);
+        if (instance == null) {
+            final JournalExercisedPluginReporter reporter = instance = new JournalExercisedPluginReporter(
+                    format, new File(System.getProperty("basedir") + "/target")
+            );
+            Runtime.getRuntime().addShutdownHook(new Thread("Exercised plugins report") {
+                @Override
+                public void run() {
+                    reporter.close();
+                }
+            });
+            INSTANCES.put(format, instance);
+        }
+        return instance;
+    }
+
+    @Override
+    public synchronized void log(String testName, String pluginName, @CheckForNull String pluginVersion) {
+        if (writer == null) return;
+
+        try {
+            writer.write(testName + '\t' + pluginName + '\t' + (pluginVersion == null ? "" : pluginVersion) + '\n');
+            writer.flush();
+        } catch (IOException e) {
+            LOGGER.error("Unable to write to " + journal, e);
+        }
+    }
+
+    /**
+     * Flush the journal of this JVM and write the report merging all journals found.
+     */
+    public synchronized void close() {
+        if (writer == null) return;
+
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.error("Unable to close " + journal, e);
+        } finally {
+            writer = null;
+            OPEN_JOURNALS.remove(journal);
+        }
+
+        // Reporters of this JVM can not hold the file lock at the same time
+        synchronized (JournalExercisedPluginReporter.class) {
+            try (FileChannel global = openGlobalLock(); FileLock ignored = global.lock()) {
+                compact();
+                write(read());
+            } catch (IOException e) {
+                LOGGER.error("Unable to write " + report, e);
+            }
+        }
+    }
+
+    /**
+     * Merge journals of terminated forks into the compacted journal and delete them.
+     */
+    private void compact() throws IOException {
+        List<File> done = new ArrayList<>();
+        for (File f : listJournals()) {
+            if (!isLive(f)) {
+                done.add(f);
+            }
+        }
+        if (done.isEmpty()) return;
+
+        File compacted = new File(dir, COMPACTED);
+        Map<String, String> records = new TreeMap<>();
+        read(compacted, records);
+        for (File f : done) {
+            read(f, records);
+        }
+
+        Path tmp = Files.createTempFile(dir.toPath(), "compacted", ".tmp");
+        try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> record : records.entrySet()) {
+                w.write(record.getKey() + '\t' + record.getValue() + '\n');
+            }
+        }
+        Files.move(tmp, compacted.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (File f : done) {
+            Files.delete(f.toPath());
+        }
+    }
+
+    /**
+     * Read all records, keyed by test and plugin name.
+     */
+    private Map<String, String> read() throws IOException {
+        Map<String, String> records = new TreeMap<>();
+        read(new File(dir, COMPACTED), records);
+        for (File f : listJournals()) {
+            read(f, records);
+        }
+        return records;
+    }
+
+    private static void read(File file, Map<String, String> records) throws IOException {
+        if (!file.exists()) return;
+
+        // Whatever follows the last newline is an incomplete record of a fork that was killed
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        int start = 0;
+        int end;
+        while ((end = content.indexOf('\n', start)) >= 0) {
+            String line = content.substring(start, end);
+            start = end + 1;
+
+            int sep = line.lastIndexOf('\t');
+            if (sep <= 0 || line.indexOf('\t') == sep) continue;
+
+            records.put(line.substring(0, sep), line.substring(sep + 1));
+        }
+    }
+
+    private void write(Map<String, String> records) throws IOException {
+        switch (format) {
+            case PROPERTIES:
+                FileUtils.deleteQuietly(report);
+                PropertiesConfiguration config = new PropertiesConfiguration();
+                config.setDelimiterParsingDisabled(true);
+                for (Map.Entry<String, String> record : records.entrySet()) {
+                    config.setProperty(record.getKey().replace('\t', '$'), record.getValue());
+                }
+                try {
+                    config.save(report);
+                } catch (ConfigurationException e) {
+                    throw new IOException(e);
+                }
+                break;
+            case JSON:
+                ObjectMapper mapper = new ObjectMapper();
+                ArrayNode array = mapper.createArrayNode();
+                for (Map.Entry<String, String> record : records.entrySet()) {
+                    String[] key = record.getKey().split("\t", 2);
+                    ObjectNode o = array.addObject();
+                    o.put("test", key[0]);
+                    o.put("plugin", key[1]);
+                    o.put("version", record.getValue());
+                }
+                mapper.writerWithDefaultPrettyPrinter().writeValue(report, array);
+                break;
+            case CSV:
+                StringBuilder csv = new StringBuilder("test,plugin,version\n");
+                for (Map.Entry<String, String> record : records.entrySet()) {
+                    String[] key = record.getKey().split("\t", 2);
+                    csv.append(csv(key[0])).append(',').append(csv(key[1])).append(',').append(csv(record.getValue())).append('\n');
+                }
+                FileUtils.writeStringToFile(report, csv.toString(), StandardCharsets.UTF_8.name());
+                break;
+            default:
+                throw new AssertionError(format);
+        }
+        LOGGER.info("Exercised plugins written to " + report.getAbsolutePath());
+    }
+
+    private static String csv(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private FileChannel openGlobalLock() throws IOException {
+        return FileChannel.open(new File(dir, ".lock").toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private List<File> listJournals() {
+        List<File> journals = new ArrayList<>();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                if (f.getName().startsWith(JOURNAL_PREFIX)) {
+                    journals.add(f);
+                }
+            }
+        }
+        return journals;
+    }
+
+    /**
+     * Journal is live as long as the fork writing it holds the lock.
+     */
+    private static boolean isLive(File f) throws IOException {
+        // Probing would release the lock of this JVM when the channel is closed
+        if (OPEN_JOURNALS.contains(f)) return true;
+
+        try (FileChannel c = FileChannel.open(f.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            FileLock l = c.tryLock();
+            if (l == null) return true;
+            l.release();
+            return false;
+        }
+    }
+}
@@ -42,7 +42,9 @@ import org.slf4j.LoggerFactory;
  * <testName>::<pluginName> = <pluginVersion>
  *
  * @author scott.hebert@ericsson.com
+ * @deprecated Rewrites the whole file for every record, use {@link JournalExercisedPluginReporter}.
  */
+@Deprecated
 public class TextFileExercisedPluginReporter implements ExercisedPluginsReporter {
 
     private static TextFileExercisedPluginReporter instance = null;
@@ -0,0 +1,51 @@
+// Find an element matching the selectors in a single round trip.
+//
+// Selectors are pairs of kind ('css' or 'xpath') and expression. They are tried in order and the first visible
+// element is returned. When the last element is requested, it is returned regardless of its visibility.
+
+var selectors = arguments[0];
+var last = arguments[1];
+
+function matches(kind, expression) {
+    if (kind === 'css') {
+        return Array.prototype.slice.call(document.querySelectorAll(expression));
+    }
+
+    var snapshot = document.evaluate(expression, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+    var ret = [];
+    for (var i = 0; i < snapshot.snapshotLength; i++) {
+        var node = snapshot.snapshotItem(i);
+        if (node.nodeType === 1) ret.push(node);
+    }
+    return ret;
+}
+
+// Approximation of WebElement.isDisplayed()
+function visible(e) {
+    var tag = e.tagName.toUpperCase();
+    if (tag === 'OPTION' || tag === 'OPTGROUP') {
+        for (var p = e.parentNode; p; p = p.parentNode) {
+            if (p.tagName && p.tagName.toUpperCase() === 'SELECT') return visible(p);
+        }
+    }
+    if (tag === 'INPUT' && e.type && e.type.toLowerCase() === 'hidden') return false;
+
+    var style = window.getComputedStyle(e);
+    if (style.visibility === 'hidden' || style.visibility === 'collapse') return false;
+
+    // No boxes are generated when the element or any of its ancestors is not displayed
+    return !!(e.offsetWidth || e.offsetHeight || e.getClientRects().length);
+}
+
+for (var i = 0; i < selectors.length; i++) {
+    var all = matches(selectors[i][0], selectors[i][1]);
+    if (last) {
+        if (all.length > 0) return all[all.length - 1];
+        continue;
+    }
+
+    for (var j = 0; j < all.length; j++) {
+        if (visible(all[j])) return all[j];
+    }
+}
+return null;
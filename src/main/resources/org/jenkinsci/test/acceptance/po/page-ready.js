@@ -0,0 +1,46 @@
+// Report whether the page is loaded and settled so it can be interacted with.
+//
+// Installs a hook counting XMLHttpRequests in progress the first time it is called on a page. Requests started
+// before the hook was installed are covered by the counters of Prototype.js and jQuery, if present. Requests that
+// completed before that are unknown, so the quiet period starts when the hook is installed.
+
+var quietPeriod = arguments[0];
+
+var state = window.__athPageReady;
+if (!state) {
+    state = window.__athPageReady = { pending: 0, lastActivity: new Date().getTime() };
+    var send = XMLHttpRequest.prototype.send;
+    XMLHttpRequest.prototype.send = function () {
+        state.pending++;
+        state.lastActivity = new Date().getTime();
+        var settled = false;
+        var done = function () {
+            if (settled) return;
+            settled = true;
+            state.pending--;
+            state.lastActivity = new Date().getTime();
+        };
+        this.addEventListener('loadend', done);
+        try {
+            return send.apply(this, arguments);
+        } catch (e) {
+            done();
+            throw e;
+        }
+    };
+}
+
+if (document.readyState !== 'complete') return false;
+
+// Ajax requests in progress
+if (state.pending > 0) return false;
+if (window.Ajax && Ajax.activeRequestCount > 0) return false;
+if (window.jQuery && jQuery.active > 0) return false;
+
+// Config forms are covered by this until behaviour.js initializes them
+var loading = document.querySelectorAll('.behavior-loading');
+for (var i = 0; i < loading.length; i++) {
+    if (loading[i].offsetParent !== null) return false;
+}
+
+return new Date().getTime() - state.lastActivity >= quietPeriod;
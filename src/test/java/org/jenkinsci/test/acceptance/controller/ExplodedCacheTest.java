@@ -0,0 +1,74 @@
+package org.jenkinsci.test.acceptance.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExplodedCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void modifyingHomeLeavesCacheIntact() throws Exception {
+        File cacheDir = tmp.newFolder("cache");
+        ExplodedCache cache = new ExplodedCache(cacheDir);
+
+        File pluginDir = tmp.newFolder("home", "plugins");
+        File archive = new File(pluginDir, "foo.hpi");
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zip.write("Short-Name: foo\n".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("WEB-INF/lib/foo.jar"));
+            zip.write("jar".getBytes(StandardCharsets.UTF_8));
+        }
+
+        cache.explodePlugins(pluginDir);
+
+        File exploded = new File(pluginDir, "foo");
+        File jar = new File(exploded, "WEB-INF/lib/foo.jar");
+        assertThat(read(jar), equalTo("jar"));
+        assertThat(new File(exploded, ".timestamp2").lastModified(), equalTo(archive.lastModified()));
+        if (Files.getFileAttributeView(jar.toPath(), PosixFileAttributeView.class) != null) {
+            assertThat(Files.getPosixFilePermissions(jar.toPath()), not(hasItem(PosixFilePermission.OWNER_WRITE)));
+        }
+
+        // Changes Jenkins or the test might do to the plugin directory
+        FileUtils.writeStringToFile(new File(exploded, "META-INF/MANIFEST.MF"), "Short-Name: bar\n", StandardCharsets.UTF_8.name());
+        FileUtils.touch(new File(exploded, ".timestamp2"));
+        Files.delete(jar.toPath());
+        FileUtils.writeStringToFile(jar, "modified", StandardCharsets.UTF_8.name());
+
+        File[] entries = new File(cacheDir, "plugins").listFiles();
+        assertThat(entries.length, equalTo(1));
+        File cached = entries[0];
+        assertThat(read(new File(cached, "META-INF/MANIFEST.MF")), equalTo("Short-Name: foo\n"));
+        assertThat(read(new File(cached, "WEB-INF/lib/foo.jar")), equalTo("jar"));
+        assertThat(new File(cached, ".timestamp2").exists(), equalTo(false));
+
+        // Another home gets pristine content
+        FileUtils.deleteDirectory(exploded);
+        cache.explodePlugins(pluginDir);
+        assertThat(read(new File(exploded, "META-INF/MANIFEST.MF")), equalTo("Short-Name: foo\n"));
+        assertThat(read(jar), equalTo("jar"));
+    }
+
+    private static String read(File file) throws Exception {
+        return FileUtils.readFileToString(file, StandardCharsets.UTF_8.name());
+    }
+}
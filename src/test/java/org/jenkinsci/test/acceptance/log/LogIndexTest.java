@@ -0,0 +1,100 @@
+package org.jenkinsci.test.acceptance.log;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jenkinsci.test.acceptance.controller.JenkinsController;
+import org.junit.Test;
+
+public class LogIndexTest {
+
+    @Test
+    public void queryLinesSinceMarker() throws Exception {
+        LogIndex index = new LogIndex();
+        for (int i = 0; i < 5000; i++) {
+            index.processLine("line " + i);
+        }
+        LogIndex.Marker marker = index.mark();
+        index.processLine("Jenkins is fully up and running");
+        index.processLine("done");
+
+        List<String> lines = new ArrayList<>();
+        for (LogIndex.Line line : index.since(marker)) {
+            lines.add(line.getText());
+        }
+        assertThat(lines, contains("Jenkins is fully up and running", "done"));
+        assertThat(index.since(marker).get(0).getNumber(), equalTo(5000));
+        assertThat(index.since(index.mark()).isEmpty(), equalTo(true));
+
+        assertThat(index.find(Pattern.compile("line 1"), marker), nullValue());
+        assertThat(index.await(Pattern.compile("fully up"), marker, 0, TimeUnit.SECONDS).group(), equalTo("fully up"));
+    }
+
+    @Test
+    public void dropLinesNotRetained() {
+        LogIndex index = new LogIndex();
+        LogIndex.Marker start = index.mark();
+        LogIndex.Marker retained = index.retain();
+        for (int i = 0; i < 10000; i++) {
+            index.processLine("line " + i);
+        }
+        assertThat(index.since(start).size(), equalTo(10000));
+
+        index.release(retained);
+        for (int i = 10000; i < 20000; i++) {
+            index.processLine("line " + i);
+        }
+        List<LogIndex.Line> kept = index.since(start);
+        assertThat(kept.size() < 2 * 4096, equalTo(true));
+        assertThat(kept.get(kept.size() - 1).getText(), equalTo("line 19999"));
+    }
+
+    @Test
+    public void awaitLine() throws Exception {
+        final LogIndex index = new LogIndex();
+        LogIndex.Marker marker = index.mark();
+        assertThat(index.await(Pattern.compile("ready"), marker, 10, TimeUnit.MILLISECONDS), nullValue());
+
+        new Thread() {
+            @Override public void run() {
+                index.processLine("not yet");
+                index.processLine("ready: 42");
+            }
+        }.start();
+        Matcher m = index.await(Pattern.compile("ready: (\\d+)"), marker, 10, TimeUnit.SECONDS);
+        assertThat(m.group(1), equalTo("42"));
+    }
+
+    @Test
+    public void groupRecords() {
+        LogIndex index = new LogIndex();
+        JenkinsController controller = mock(JenkinsController.class);
+        when(controller.getLogIndex()).thenReturn(index);
+
+        index.processLine("Before the test");
+        TestLog log = new TestLog(controller);
+        index.processLine("Oct 18, 2016 10:00:01 AM hudson.plugins.plot.CSVSeries loadSeries");
+        index.processLine("SEVERE: Exception converting to number");
+        index.processLine("java.lang.NumberFormatException: For input string: \"\"");
+        index.processLine("\tat java.lang.Integer.parseInt(Integer.java:592)");
+        index.processLine("2016-10-18 10:00:02.123+0000 [id=42]\tINFO\th.d.DiskUsageUtil#calculate: Finished Project disk usage. 12 ms");
+
+        assertThat(log.getRecords(), contains(
+                "Exception converting to number\njava.lang.NumberFormatException: For input string: \"\"\n\tat java.lang.Integer.parseInt(Integer.java:592)",
+                "Finished Project disk usage. 12 ms"
+        ));
+        assertThat(log.hasRecord(Pattern.compile("Finished Project disk usage. \\d+ ms")), equalTo(true));
+        assertThat(log.hasRecord(Pattern.compile(".*NumberFormatException: For input string: \"\".*", Pattern.DOTALL)), equalTo(true));
+        assertThat(log.hasRecord(Pattern.compile("Before.*")), equalTo(false));
+    }
+}
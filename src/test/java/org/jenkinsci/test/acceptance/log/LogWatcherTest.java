@@ -0,0 +1,55 @@
+package org.jenkinsci.test.acceptance.log;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class LogWatcherTest {
+
+    @Test
+    public void extractLiterals() {
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("Jenkins is fully up and running")), equalTo("Jenkins is fully up and running"));
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("java.net.BindException: Address")), equalTo("BindException: Address"));
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("Build #\\d+ completed: (SUCCESS)")), equalTo(" completed: "));
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("abcd?ef")), equalTo("abc"));
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("foo|bar")), nullValue());
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("running", Pattern.CASE_INSENSITIVE)), nullValue());
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("\\d+")), nullValue());
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("a\\x41bcd")), nullValue());
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("a\\u0041bcd")), nullValue());
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("a\\0101bcd")), nullValue());
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("a\\cAbcd")), nullValue());
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("a\\p{Lu}bcd")), nullValue());
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("[a-z&&[^x]]foo")), nullValue());
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("[a-c[x-z]]foo")), nullValue());
+        assertThat(MultiPatternMatcher.literal(Pattern.compile("[\\[a]foo")), equalTo("foo"));
+    }
+
+    @Test
+    public void matchWatchersAtOnce() throws Exception {
+        LogWatcher watcher = new LogWatcher();
+        Future<Matcher> ready = watcher.watch(Pattern.compile("Jenkins is fully up and running"));
+        Future<Matcher> build = watcher.watch(Pattern.compile("Build #(\\d+) completed"));
+        Future<Matcher> any = watcher.watch(Pattern.compile("[Ee]rror"));
+        Future<Matcher> never = watcher.watch(Pattern.compile("Build #\\d+ aborted"));
+
+        watcher.processLine("Build #x completed");
+        watcher.processLine("Jenkins is starting");
+        assertThat(ready.isDone() || build.isDone() || any.isDone(), equalTo(false));
+
+        watcher.processLine("INFO: Build #42 completed after Jenkins is fully up and running");
+        assertThat(build.get(0, TimeUnit.SECONDS).group(1), equalTo("42"));
+        assertThat(ready.isDone(), equalTo(true));
+
+        watcher.processLine("error");
+        assertThat(any.isDone(), equalTo(true));
+        assertThat(never.isDone(), equalTo(false));
+    }
+}
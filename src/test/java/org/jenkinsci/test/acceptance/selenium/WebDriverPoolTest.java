@@ -0,0 +1,120 @@
+package org.jenkinsci.test.acceptance.selenium;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.Test;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+public class WebDriverPoolTest {
+
+    private static final Dimension WINDOW_SIZE = new Dimension(1024, 768);
+
+    private final List<WebDriver> launched = new ArrayList<>();
+
+    private final Callable<WebDriver> factory = new Callable<WebDriver>() {
+        @Override
+        public WebDriver call() {
+            WebDriver d = driver();
+            synchronized (launched) {
+                launched.add(d);
+            }
+            return d;
+        }
+    };
+
+    @Test
+    public void browsersDoNotOutnumberPoolSize() throws Exception {
+        WebDriverPool pool = new WebDriverPool(1, WINDOW_SIZE, factory);
+
+        WebDriver pooled = pool.acquire();
+        WebDriver extra = pool.acquire(); // Nothing left to wait for, launched in place
+        assertThat(extra, not(sameInstance(pooled)));
+        assertThat(launched.size(), equalTo(2));
+
+        pool.release(extra);
+        verify(extra).quit();
+
+        pool.release(pooled);
+        verify(pooled, never()).quit();
+        assertThat(pool.acquire(), sameInstance(pooled));
+        assertThat(launched.size(), equalTo(2));
+
+        pool.close();
+    }
+
+    @Test
+    public void resetBrowserState() throws Exception {
+        WebDriverPool pool = new WebDriverPool(1, WINDOW_SIZE, factory);
+        WebDriver d = pool.acquire();
+        Alert alert = d.switchTo().alert();
+
+        pool.release(d);
+
+        verify(alert).dismiss();
+        verify(d.switchTo()).window("popup");
+        verify(d).close(); // The popup, switched to
+        verify(d.switchTo()).window("main");
+        verify(d.manage()).deleteAllCookies();
+        verify(d).get("about:blank");
+        verify(d.manage().window()).setSize(WINDOW_SIZE);
+        verify(d, never()).quit();
+
+        assertThat(pool.acquire(), sameInstance(d));
+        pool.close();
+    }
+
+    @Test
+    public void discardDeadBrowser() throws Exception {
+        WebDriverPool pool = new WebDriverPool(1, WINDOW_SIZE, factory);
+        WebDriver dead = pool.acquire();
+        when(dead.switchTo()).thenThrow(new WebDriverException("Browser died"));
+
+        pool.release(dead);
+        verify(dead).quit();
+
+        WebDriver replacement = pool.acquire();
+        assertThat(replacement, not(sameInstance(dead)));
+        assertThat(launched.size(), equalTo(2));
+        pool.close();
+    }
+
+    private static WebDriver driver() {
+        WebDriver d = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        when(d.getWindowHandle()).thenReturn("main");
+        when(d.getWindowHandles()).thenReturn(new HashSet<>(Arrays.asList("main", "popup")));
+
+        WebDriver.TargetLocator locator = mock(WebDriver.TargetLocator.class);
+        when(d.switchTo()).thenReturn(locator);
+        when(locator.window(anyString())).thenReturn(d);
+        Alert alert = mock(Alert.class);
+        when(locator.alert()).thenReturn(alert);
+
+        WebDriver.Options options = mock(WebDriver.Options.class);
+        when(d.manage()).thenReturn(options);
+        WebDriver.Window window = mock(WebDriver.Window.class);
+        when(options.window()).thenReturn(window);
+        when(window.getSize()).thenReturn(new Dimension(800, 600));
+
+        when(((JavascriptExecutor) d).executeScript("return document.readyState")).thenReturn("complete");
+        return d;
+    }
+}
@@ -0,0 +1,92 @@
+package org.jenkinsci.test.acceptance.update_center;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares loading update center metadata without the index (parsing the <tt>.jsonp</tt> and writing the index) and
+ * with the index already written.
+ *
+ * <p>
+ * Not run by surefire. Run with <tt>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.jenkinsci.test.acceptance.update_center.UpdateCenterMetadataIndexBenchmark</tt>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class UpdateCenterMetadataIndexBenchmark {
+
+    /**
+     * Number of plugins in the update center, the real one has about 1500.
+     */
+    @Param("1500")
+    public int plugins;
+
+    private File dir;
+    private File jsonp;
+    private File index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("update-center-benchmark").toFile();
+        jsonp = new File(dir, "update-center-2.0.jsonp");
+        index = new File(dir, "update-center-2.0.idx");
+
+        StringBuilder json = new StringBuilder("updateCenter.post(\n{\"id\":\"default\",\"plugins\":{");
+        for (int i = 0; i < plugins; i++) {
+            if (i > 0) json.append(',');
+            json.append(String.format(
+                    "\"plugin-%1$d\":{\"name\":\"plugin-%1$d\",\"gav\":\"org.jenkins-ci.plugins:plugin-%1$d:1.%1$d\",\"version\":\"1.%1$d\"," +
+                    "\"requiredCore\":\"1.609\",\"url\":\"http://x/plugin-%1$d.hpi\",\"excerpt\":\"Plugin number %1$d, described at length.\"," +
+                    "\"dependencies\":[{\"name\":\"plugin-%2$d\",\"version\":\"1.0\",\"optional\":false}]}",
+                    i, i / 2
+            ));
+        }
+        json.append("}}\n);");
+        FileUtils.writeStringToFile(jsonp, json.toString(), StandardCharsets.UTF_8.name());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Benchmark
+    public PluginMetadata cold() throws IOException {
+        Files.deleteIfExists(index.toPath());
+        return UpdateCenterMetadataIndex.load(jsonp).plugins.get("plugin-1");
+    }
+
+    @Benchmark
+    public PluginMetadata warm() throws IOException {
+        return UpdateCenterMetadataIndex.load(jsonp).plugins.get("plugin-1");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UpdateCenterMetadataIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package org.jenkinsci.test.acceptance.update_center;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UpdateCenterMetadataIndexTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void indexedMetadataMatchesParsed() throws Exception {
+        File jsonp = jsonp();
+
+        UpdateCenterMetadata parsed = UpdateCenterMetadataIndex.load(jsonp);
+        assertThat(new File(tmp.getRoot(), "update-center-2.0.idx").exists(), equalTo(true));
+
+        UpdateCenterMetadata indexed = UpdateCenterMetadataIndex.load(jsonp);
+        assertThat(indexed.id, equalTo("default"));
+        assertThat(indexed.plugins.get("missing"), nullValue());
+        assertMatches(parsed.plugins.get("consumer"), indexed.plugins.get("consumer"));
+        assertThat(indexed.plugins.get("consumer").getDependencies().get(0).get().getName(), equalTo("provider"));
+        assertThat(indexed.plugins.keySet(), containsInAnyOrder("consumer", "provider"));
+        assertThat(indexed.getOriginalJSON(), equalTo(parsed.getOriginalJSON()));
+    }
+
+    @Test
+    public void staleIndexIsRecreated() throws Exception {
+        File jsonp = jsonp();
+        UpdateCenterMetadataIndex.load(jsonp);
+
+        FileUtils.writeStringToFile(jsonp, "updateCenter.post(\n{\"id\":\"default\",\"plugins\":{}}\n);", StandardCharsets.UTF_8.name());
+        jsonp.setLastModified(jsonp.lastModified() + 2000);
+
+        assertThat(UpdateCenterMetadataIndex.load(jsonp).plugins.isEmpty(), equalTo(true));
+    }
+
+    private void assertMatches(PluginMetadata expected, PluginMetadata actual) {
+        assertThat(actual.getName(), equalTo(expected.getName()));
+        assertThat(actual.getVersion(), equalTo(expected.getVersion()));
+        assertThat(actual.gav, equalTo(expected.gav));
+        assertThat(actual.requiredCore(), equalTo(expected.requiredCore()));
+        assertThat(actual.getDependencies().size(), equalTo(expected.getDependencies().size()));
+        for (int i = 0; i < expected.getDependencies().size(); i++) {
+            Dependency e = expected.getDependencies().get(i);
+            Dependency a = actual.getDependencies().get(i);
+            assertThat(a.name, equalTo(e.name));
+            assertThat(a.version, equalTo(e.version));
+            assertThat(a.optional, equalTo(e.optional));
+        }
+    }
+
+    private File jsonp() throws IOException {
+        File jsonp = new File(tmp.getRoot(), "update-center-2.0.jsonp");
+        FileUtils.writeStringToFile(jsonp, "updateCenter.post(\n" +
+                "{\"connectionCheckUrl\":\"http://www.google.com/\",\"core\":{\"name\":\"core\",\"version\":\"2.0\"},\"id\":\"default\",\"plugins\":{" +
+                "\"consumer\":{\"name\":\"consumer\",\"gav\":\"org.jenkins-ci.plugins:consumer:1.1\",\"version\":\"1.1\",\"requiredCore\":\"1.609\",\"url\":\"http://x/consumer.hpi\"," +
+                "\"dependencies\":[{\"name\":\"provider\",\"version\":\"1.0\",\"optional\":false},{\"name\":\"other\",\"version\":\"2.0\",\"optional\":true}]}," +
+                "\"provider\":{\"name\":\"provider\",\"gav\":\"org.jenkins-ci.plugins:provider:1.0\",\"version\":\"1.0\",\"requiredCore\":\"1.580\",\"dependencies\":[]}" +
+                "},\"signature\":{\"certificates\":[\"x\"]}}\n" +
+                ");", StandardCharsets.UTF_8.name());
+        return jsonp;
+    }
+}
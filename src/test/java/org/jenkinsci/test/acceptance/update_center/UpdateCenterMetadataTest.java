@@ -1,13 +1,14 @@
 package org.jenkinsci.test.acceptance.update_center;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.mockito.Matchers.any;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import hudson.util.VersionNumber;
 import org.hamcrest.Matchers;
 import org.jenkinsci.test.acceptance.po.Jenkins;
+import org.jenkinsci.test.acceptance.po.PluginManager;
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -26,7 +27,9 @@ public class UpdateCenterMetadataTest {
     private Jenkins jenkins = mock(Jenkins.class);
     {
         when(jenkins.getVersion()).thenReturn(new VersionNumber("2"));
-        when(jenkins.getPlugin(any(String.class))).thenThrow(new IllegalArgumentException("Not installed"));
+        PluginManager pm = mock(PluginManager.class);
+        when(pm.getInstalledPlugins()).thenReturn(Collections.<String, VersionNumber>emptyMap());
+        when(jenkins.getPluginManager()).thenReturn(pm);
     }
 
     private HashMap<String, PluginMetadata> plugins = new HashMap<>();
@@ -80,6 +83,27 @@ public class UpdateCenterMetadataTest {
         assertThat(ucm.transitiveDependenciesOf(jenkins, specs("provider@1", "consumer@1")), Matchers.contains(plugins.get("provider"), plugins.get("consumer")));
     }
 
+    @Test
+    public void transitiveDependenciesOfInstalled() throws Exception {
+        when(jenkins.getPluginManager().getInstalledPlugins()).thenReturn(Collections.singletonMap("provider", new VersionNumber("1")));
+
+        assertThat(ucm.transitiveDependenciesOf(jenkins, specs("consumer")), Matchers.contains(plugins.get("consumer")));
+    }
+
+    @Test
+    public void transitiveDependenciesOfReportsAllProblems() throws Exception {
+        plugins.put("greedy", new PluginMetadata("greedy", "jenkins:greedy:1", "1", "1", Arrays.asList(new Dependency("provider:2"), new Dependency("absent:1"))));
+        ucm = UpdateCenterMetadata.get("id", plugins);
+
+        try {
+            ucm.transitiveDependenciesOf(jenkins, specs("greedy", "consumer"));
+            fail();
+        } catch (UpdateCenterMetadata.UnableToResolveDependencies ex) {
+            assertThat(ex.getMessage(), Matchers.containsString("provider@2 required by [greedy, consumer] but only 1 available"));
+            assertThat(ex.getMessage(), Matchers.containsString("Unable to install dependency 'Dependency[absent@1;optional=false]'"));
+        }
+    }
+
     private List<PluginSpec> specs(String... specs) {
         ArrayList<PluginSpec> ret = new ArrayList<>(specs.length);
         for (String spec : specs) {
@@ -0,0 +1,102 @@
+package org.jenkinsci.test.acceptance.utils.pluginreporter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.jenkinsci.test.acceptance.utils.pluginreporter.JournalExercisedPluginReporter.Format;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class JournalExercisedPluginReporterTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void appendAndDeduplicate() throws Exception {
+        File target = tmp.getRoot();
+        JournalExercisedPluginReporter reporter = new JournalExercisedPluginReporter(Format.JSON, target);
+        reporter.log("FooTest.a", "git", "1.0");
+        reporter.log("FooTest.a", "git", "1.1");
+        reporter.log("FooTest.b", "git", null);
+
+        // Flushed before the reporter is closed
+        assertThat(read(journals(target)[0]), equalTo("FooTest.a\tgit\t1.0\nFooTest.a\tgit\t1.1\nFooTest.b\tgit\t\n"));
+
+        reporter.close();
+
+        JsonNode json = new ObjectMapper().readTree(new File(target, "exercised-plugins.json"));
+        assertThat(json.size(), equalTo(2));
+        assertThat(json.get(0).get("test").asText(), equalTo("FooTest.a"));
+        assertThat(json.get(0).get("plugin").asText(), equalTo("git"));
+        assertThat(json.get(0).get("version").asText(), equalTo("1.1"));
+        assertThat(json.get(1).get("test").asText(), equalTo("FooTest.b"));
+        assertThat(json.get(1).get("version").asText(), equalTo(""));
+    }
+
+    @Test
+    public void mergeAndCompactJournals() throws Exception {
+        File target = tmp.getRoot();
+        JournalExercisedPluginReporter first = new JournalExercisedPluginReporter(Format.CSV, target);
+        JournalExercisedPluginReporter second = new JournalExercisedPluginReporter(Format.CSV, target);
+        first.log("FooTest.a", "git", "1.0");
+        second.log("BarTest.a", "matrix-auth", "1.2,beta");
+
+        // Journal of a fork killed in the middle of a line
+        FileUtils.writeStringToFile(
+                new File(target, "exercised-plugins/journal-killed.log"),
+                "BazTest.a\tant\t1.3\nBazTest.b\tant",
+                StandardCharsets.UTF_8.name()
+        );
+
+        first.close();
+        assertThat(journals(target).length, equalTo(1)); // the live one
+        assertThat(read(new File(target, "exercised-plugins/compacted.journal")), equalTo(
+                "BazTest.a\tant\t1.3\nFooTest.a\tgit\t1.0\n"
+        ));
+        assertThat(read(new File(target, "exercised-plugins.csv")), equalTo(
+                "test,plugin,version\nBarTest.a,matrix-auth,\"1.2,beta\"\nBazTest.a,ant,1.3\nFooTest.a,git,1.0\n"
+        ));
+
+        second.close();
+        assertThat(journals(target), emptyArray());
+        String csv = read(new File(target, "exercised-plugins.csv"));
+        assertThat(csv, containsString("BarTest.a,matrix-auth,\"1.2,beta\"\n"));
+        assertThat(csv, not(containsString("BazTest.b")));
+    }
+
+    @Test
+    public void properties() throws Exception {
+        File target = tmp.getRoot();
+        JournalExercisedPluginReporter reporter = new JournalExercisedPluginReporter(Format.PROPERTIES, target);
+        reporter.log("FooTest.a", "git", "1.0");
+        reporter.close();
+
+        assertThat(read(new File(target, "exercised-plugins.properties")), containsString("FooTest.a$git = 1.0"));
+    }
+
+    private static File[] journals(File target) {
+        return new File(target, "exercised-plugins").listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith("journal-");
+            }
+        });
+    }
+
+    private static String read(File file) throws Exception {
+        return FileUtils.readFileToString(file, StandardCharsets.UTF_8.name());
+    }
+}
@@ -536,9 +536,7 @@ public class DashboardViewPluginTest extends AbstractJobRelatedTest {
 
     @Test
     public void filterByRegex() {
-        jenkins.jobs.create(FreeStyleJob.class, "a");
-        jenkins.jobs.create(FreeStyleJob.class, "aa");
-        jenkins.jobs.create(FreeStyleJob.class, "b");
+        jenkins.jobs.provision(FreeStyleJob.class, "a", "aa", "b");
 
         final DashboardView view = createDashboardView();
         view.configure(() -> view.dashboardPortlets.checkIncludeStdJobList(true));